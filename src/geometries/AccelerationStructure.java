@@ -0,0 +1,42 @@
+package geometries;
+
+import primitives.Ray;
+
+/**
+ * Spatial index over a set of bounded primitives, each one identified by its
+ * index in the array of boxes the structure was built from.
+ * The structure only finds the candidate primitives along a ray - the
+ * intersection itself is done by the {@link Visitor}
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+interface AccelerationStructure {
+
+    /**
+     * Callback for each candidate primitive along the traversed ray
+     */
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * Visit a primitive that the ray may intersect
+         *
+         * @param primitive index of the primitive
+         * @param max       the current maximum distance of the ray
+         * @return the new maximum distance of the ray (smaller or equal to max), or a
+         *         negative number to stop the traversal
+         */
+        double visit(int primitive, double max);
+    }
+
+    /**
+     * Walk all the primitives whose boxes are pierced by the ray in the interval
+     * [0, max], nearer regions first
+     *
+     * @param ray     the traversed ray
+     * @param max     the maximum distance of the ray
+     * @param visitor callback for the candidate primitives
+     * @return the maximum distance at the end of the traversal (negative if the
+     *         visitor stopped it)
+     */
+    double traverse(Ray ray, double max, Visitor visitor);
+}
@@ -0,0 +1,182 @@
+package geometries;
+
+import primitives.*;
+
+/**
+ * This class represents an axis-aligned bounding box (AABB) in euclidean space,
+ * based on its minimal and maximal corners.
+ * It is used for quick rejection of rays that can't intersect a geometry
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class BoundingBox {
+
+    /**
+     * Padding of the box bounds in the slab test
+     */
+    static final double PADDING = 1e-7;
+
+    final double minX;
+    final double minY;
+    final double minZ;
+    final double maxX;
+    final double maxY;
+    final double maxZ;
+
+    /**
+     * BoundingBox constructor based on the minimal and maximal coordinates
+     *
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param minZ minimal z coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     * @param maxZ maximal z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * BoundingBox constructor of the smallest box containing all the points
+     *
+     * @param points to be contained in the box
+     * @throws IllegalArgumentException when there are no points
+     */
+    public BoundingBox(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A bounding box must contain at least one point");
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x0 = Math.min(x0, p.getX());
+            y0 = Math.min(y0, p.getY());
+            z0 = Math.min(z0, p.getZ());
+            x1 = Math.max(x1, p.getX());
+            y1 = Math.max(y1, p.getY());
+            z1 = Math.max(z1, p.getZ());
+        }
+        minX = x0;
+        minY = y0;
+        minZ = z0;
+        maxX = x1;
+        maxY = y1;
+        maxZ = z1;
+    }
+
+    /**
+     * returns the minimal corner of the box
+     *
+     * @return minimal corner point
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * returns the maximal corner of the box
+     *
+     * @return maximal corner point
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * returns the smallest box containing both this box and another one
+     *
+     * @param other the box to join
+     * @return the union box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * returns the surface area of the box, the measure of the surface area
+     * heuristic (SAH)
+     *
+     * @return surface area
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Slab test - checks whether a ray passes through the box before a maximum
+     * distance
+     *
+     * @param ray that may pass through the box
+     * @param max the maximum distance of the ray
+     * @return true if the ray enters the box in the interval [0, max]
+     */
+    public boolean intersects(Ray ray, double max) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return entry(minX, minY, minZ, maxX, maxY, maxZ, //
+                p0.getX(), p0.getY(), p0.getZ(), 1 / dir.getX(), 1 / dir.getY(), 1 / dir.getZ(), max) //
+                != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Slab test on raw coordinates. The bounds are padded by {@link #PADDING} so
+     * that the rounding of flat boxes (e.g. of an axis-aligned polygon) will not
+     * reject a real intersection.<br/>
+     * A NaN slab (ray origin on the slab plane and parallel to it) does not
+     * constrain the interval
+     *
+     * @return the distance where the ray enters the box (0 if it starts inside)
+     *         or positive infinity if it misses the box in the interval [0, max]
+     */
+    static double entry(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, //
+            double ox, double oy, double oz, double ix, double iy, double iz, double max) {
+        double tNear = 0;
+        double tFar = max;
+
+        double t1 = (minX - PADDING - ox) * ix;
+        double t2 = (maxX + PADDING - ox) * ix;
+        if (t1 > t2) {
+            double t = t1;
+            t1 = t2;
+            t2 = t;
+        }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (minY - PADDING - oy) * iy;
+        t2 = (maxY + PADDING - oy) * iy;
+        if (t1 > t2) {
+            double t = t1;
+            t1 = t2;
+            t2 = t;
+        }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (minZ - PADDING - oz) * iz;
+        t2 = (maxZ + PADDING - oz) * iz;
+        if (t1 > t2) {
+            double t = t1;
+            t1 = t2;
+            t2 = t;
+        }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        return tNear <= tFar ? tNear : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getMin() + "," + getMax() + "]";
+    }
+}
@@ -0,0 +1,334 @@
+package geometries;
+
+import primitives.*;
+
+/**
+ * Bounding volume hierarchy (BVH) over axis-aligned boxes of primitives.
+ * The tree is built top-down with the binned surface area heuristic (SAH) and
+ * is stored in flat arrays: each node has 6 bounds and 2 integers - the index
+ * of its left child (the right one follows it) and 0 for an inner node, or the
+ * first primitive position and the primitives count for a leaf
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+final class BoundingVolumeHierarchy implements AccelerationStructure {
+
+    /**
+     * amount of buckets the centroids are binned into for the SAH evaluation
+     */
+    private static final int BINS = 12;
+
+    /**
+     * cost of traversing a node relative to the cost of intersecting a primitive
+     */
+    private static final double TRAVERSAL_COST = 0.5;
+
+    /**
+     * leaves larger than this size are split even when SAH prefers a leaf
+     */
+    private static final int MAX_LEAF_SIZE = 8;
+
+    /**
+     * bounds of the primitives - needed only while the tree is built
+     */
+    private double[] boxes;
+    private final int[] order;
+    private double[] bounds;
+    private int[] nodes;
+    private int nodeCount = 0;
+    private int depth = 0;
+
+    /**
+     * Build the hierarchy
+     *
+     * @param boxes bounds of the primitives, 6 numbers per primitive: minX, minY,
+     *              minZ, maxX, maxY, maxZ
+     * @param count amount of primitives
+     */
+    BoundingVolumeHierarchy(double[] boxes, int count) {
+        this.boxes = boxes;
+        order = new int[count];
+        for (int i = 0; i < count; ++i)
+            order[i] = i;
+        int maxNodes = Math.max(1, 2 * count - 1);
+        bounds = new double[6 * maxNodes];
+        nodes = new int[2 * maxNodes];
+        nodeCount = 1;
+        if (count == 0)
+            setBounds(0, 0, 0);
+        else
+            build(0, 0, count, 1);
+        this.boxes = null;
+        // leaves of several primitives leave unused nodes at the end
+        if (nodeCount < maxNodes) {
+            bounds = java.util.Arrays.copyOf(bounds, 6 * nodeCount);
+            nodes = java.util.Arrays.copyOf(nodes, 2 * nodeCount);
+        }
+    }
+
+    /**
+     * Build a node from a range of the primitives order array
+     *
+     * @param node  index of the node
+     * @param start first position in the order array (included)
+     * @param end   last position in the order array (excluded)
+     * @param level depth of the node in the tree
+     */
+    private void build(int node, int start, int end, int level) {
+        depth = Math.max(depth, level);
+        setBounds(node, start, end);
+        int count = end - start;
+        if (count == 1) {
+            setLeaf(node, start, count);
+            return;
+        }
+
+        // bounds of the centroids (doubled) - choose the axis of their largest extent
+        double[] cMin = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY };
+        double[] cMax = { Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (int i = start; i < end; ++i) {
+            int b = 6 * order[i];
+            for (int a = 0; a < 3; ++a) {
+                double c = boxes[b + a] + boxes[b + a + 3];
+                if (c < cMin[a]) cMin[a] = c;
+                if (c > cMax[a]) cMax[a] = c;
+            }
+        }
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (cMax[a] - cMin[a] > cMax[axis] - cMin[axis])
+                axis = a;
+        double extent = cMax[axis] - cMin[axis];
+
+        int mid;
+        if (extent <= 0) { // all the centroids are in the same place
+            if (count <= MAX_LEAF_SIZE) {
+                setLeaf(node, start, count);
+                return;
+            }
+            mid = (start + end) / 2;
+        } else {
+            int split = findSplit(node, start, end, axis, cMin[axis], extent);
+            if (split < 0) {
+                setLeaf(node, start, count);
+                return;
+            }
+            mid = partition(start, end, axis, cMin[axis], extent, split);
+            if (mid == start || mid == end)
+                mid = (start + end) / 2;
+        }
+
+        int left = nodeCount;
+        nodeCount += 2;
+        nodes[2 * node] = left;
+        nodes[2 * node + 1] = 0;
+        build(left, start, mid, level + 1);
+        build(left + 1, mid, end, level + 1);
+    }
+
+    /**
+     * Find the cheapest split of a node by the binned SAH
+     *
+     * @return the first bin of the right child, or -1 if a leaf is cheaper
+     */
+    private int findSplit(int node, int start, int end, int axis, double cMin, double extent) {
+        int[] counts = new int[BINS];
+        double[][] binBounds = new double[BINS][];
+        for (int i = start; i < end; ++i) {
+            int b = 6 * order[i];
+            int bin = bin(b, axis, cMin, extent);
+            ++counts[bin];
+            if (binBounds[bin] == null)
+                binBounds[bin] = new double[] { boxes[b], boxes[b + 1], boxes[b + 2], //
+                        boxes[b + 3], boxes[b + 4], boxes[b + 5] };
+            else
+                grow(binBounds[bin], boxes, b);
+        }
+
+        // sweep from the right to accumulate the areas of the right children
+        double[] rightAreas = new double[BINS];
+        double[] acc = null;
+        for (int bin = BINS - 1; bin > 0; --bin) {
+            if (binBounds[bin] != null)
+                if (acc == null)
+                    acc = binBounds[bin].clone();
+                else
+                    grow(acc, binBounds[bin], 0);
+            rightAreas[bin] = acc == null ? 0 : area(acc, 0);
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestSplit = -1;
+        int leftCount = 0;
+        acc = null;
+        for (int bin = 1; bin < BINS; ++bin) {
+            leftCount += counts[bin - 1];
+            if (binBounds[bin - 1] != null)
+                if (acc == null)
+                    acc = binBounds[bin - 1].clone();
+                else
+                    grow(acc, binBounds[bin - 1], 0);
+            int rightCount = end - start - leftCount;
+            if (leftCount == 0 || rightCount == 0)
+                continue;
+            double cost = area(acc, 0) * leftCount + rightAreas[bin] * rightCount;
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestSplit = bin;
+            }
+        }
+
+        int count = end - start;
+        double area = area(bounds, 6 * node);
+        double splitCost = area > 0 ? TRAVERSAL_COST + bestCost / area : TRAVERSAL_COST + count / 2d;
+        return bestSplit > 0 && (splitCost < count || count > MAX_LEAF_SIZE) ? bestSplit : -1;
+    }
+
+    /**
+     * Partition a range of the order array by the split bin
+     *
+     * @return the position of the first primitive of the right child
+     */
+    private int partition(int start, int end, int axis, double cMin, double extent, int split) {
+        int i = start;
+        int j = end - 1;
+        while (i <= j) {
+            if (bin(6 * order[i], axis, cMin, extent) < split)
+                ++i;
+            else {
+                int temp = order[i];
+                order[i] = order[j];
+                order[j--] = temp;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * returns the bin of a primitive's (doubled) centroid
+     */
+    private int bin(int b, int axis, double cMin, double extent) {
+        int bin = (int) (BINS * (boxes[b + axis] + boxes[b + axis + 3] - cMin) / extent);
+        return bin < BINS ? bin : BINS - 1;
+    }
+
+    /**
+     * Set the bounds of a node to the union of the boxes of its primitives
+     */
+    private void setBounds(int node, int start, int end) {
+        int n = 6 * node;
+        bounds[n] = bounds[n + 1] = bounds[n + 2] = Double.POSITIVE_INFINITY;
+        bounds[n + 3] = bounds[n + 4] = bounds[n + 5] = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; ++i)
+            grow(bounds, boxes, 6 * order[i], n);
+    }
+
+    private void setLeaf(int node, int start, int count) {
+        nodes[2 * node] = start;
+        nodes[2 * node + 1] = count;
+    }
+
+    /**
+     * Grow the box at the start of target to contain the box at position b of
+     * source
+     */
+    private static void grow(double[] target, double[] source, int b) {
+        grow(target, source, b, 0);
+    }
+
+    /**
+     * Grow the box at position t of target to contain the box at position b of
+     * source
+     */
+    private static void grow(double[] target, double[] source, int b, int t) {
+        for (int a = 0; a < 3; ++a) {
+            if (source[b + a] < target[t + a]) target[t + a] = source[b + a];
+            if (source[b + a + 3] > target[t + a + 3]) target[t + a + 3] = source[b + a + 3];
+        }
+    }
+
+    /**
+     * returns the surface area of the box at position b of the array
+     */
+    private static double area(double[] box, int b) {
+        double dx = box[b + 3] - box[b];
+        double dy = box[b + 4] - box[b + 1];
+        double dz = box[b + 5] - box[b + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * returns the bounding box of all the primitives of the hierarchy
+     *
+     * @return bounding box of the root
+     */
+    BoundingBox getBoundingBox() {
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    @Override
+    public double traverse(Ray ray, double max, Visitor visitor) {
+        if (order.length == 0)
+            return max;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double ix = 1 / dir.getX(), iy = 1 / dir.getY(), iz = 1 / dir.getZ();
+
+        double entry = entry(0, ox, oy, oz, ix, iy, iz, max);
+        if (entry == Double.POSITIVE_INFINITY)
+            return max;
+
+        // stack of nodes to visit with their entry distances, nearer node on top
+        int[] stack = new int[depth + 1];
+        double[] entries = new double[depth + 1];
+        int size = 0;
+        stack[size] = 0;
+        entries[size++] = entry;
+        while (size > 0) {
+            int node = stack[--size];
+            if (entries[size] > max) // the maximum distance shrank since it was pushed
+                continue;
+            int first = nodes[2 * node];
+            int count = nodes[2 * node + 1];
+            if (count > 0) {
+                for (int i = first; i < first + count; ++i) {
+                    max = visitor.visit(order[i], max);
+                    if (max < 0)
+                        return max;
+                }
+            } else {
+                double left = entry(first, ox, oy, oz, ix, iy, iz, max);
+                double right = entry(first + 1, ox, oy, oz, ix, iy, iz, max);
+                if (left <= right) {
+                    if (right != Double.POSITIVE_INFINITY) {
+                        stack[size] = first + 1;
+                        entries[size++] = right;
+                    }
+                    if (left != Double.POSITIVE_INFINITY) {
+                        stack[size] = first;
+                        entries[size++] = left;
+                    }
+                } else {
+                    if (left != Double.POSITIVE_INFINITY) {
+                        stack[size] = first;
+                        entries[size++] = left;
+                    }
+                    stack[size] = first + 1;
+                    entries[size++] = right;
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Slab test of a node (see
+     * {@link BoundingBox#entry(double, double, double, double, double, double, double, double, double, double, double, double, double)})
+     */
+    private double entry(int node, double ox, double oy, double oz, double ix, double iy, double iz, double max) {
+        int n = 6 * node;
+        return BoundingBox.entry(bounds[n], bounds[n + 1], bounds[n + 2], bounds[n + 3], bounds[n + 4],
+                bounds[n + 5], ox, oy, oz, ix, iy, iz, max);
+    }
+}
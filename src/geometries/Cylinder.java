@@ -1,6 +1,7 @@
 package geometries;
 
 import primitives.*;
+import static primitives.Util.*;
 
 /**
  * This class represents Cylinder, based on radius, axis-ray and height
@@ -32,30 +33,114 @@ public class Cylinder extends Tube {
     }
 
     /**
-     * This function return the normal vector of the cylinder at the point
+     * This function return the normal vector of the cylinder at the point.
+     * The point is on the bottom base if its height along the axis is zero, on the
+     * side if its distance from the axis is the radius, otherwise it is on the top
+     * base (the bases normal is the axis direction)
      * 
      * @param point point that may has normal vector of the cylinder
      * @return normal vector of the cylinder
      */
     @Override
     public Vector getNormal(Point point) {
-        // find the normal vector on the bottom base
-        Vector v1 = point.subtract(axisRay.getP0());
-        if (v1.dotProduct(axisRay.getDir()) == 0) { // the vectors are orthogonal to each other
-            if (v1.length() <= radius) { // the point is on the base of the cylinder
-                return axisRay.getDir();
-            }
+        Vector dir = axisRay.getDir();
+        Point p0 = axisRay.getP0();
+        double dx = point.getX() - p0.getX(), dy = point.getY() - p0.getY(), dz = point.getZ() - p0.getZ();
+        double t = dx * dir.getX() + dy * dir.getY() + dz * dir.getZ();
+        if (isZero(t)) // bottom base
+            return dir;
+
+        // the vector from the axis to the point
+        double nx = dx - t * dir.getX(), ny = dy - t * dir.getY(), nz = dz - t * dir.getZ();
+        double distance = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        return isZero(distance - radius) ? new Vector(nx / distance, ny / distance, nz / distance) : dir;
+    }
+
+    /**
+     * Find the ray parameters of the intersections with the cylinder - the points
+     * of the tube between the bases, and the points of the bases planes that are
+     * closer to the axis than the radius
+     * 
+     * @param ray the intersected ray
+     * @param max the maximum distance of the ray
+     * @return the ray parameters in the interval (0, max], ascending
+     */
+    @Override
+    double[] findParameters(Ray ray, double max) {
+        Vector a = axisRay.getDir();
+        Vector v = ray.getDir();
+        Point p0 = axisRay.getP0();
+        Point p = ray.getP0();
+        double dx = p.getX() - p0.getX(), dy = p.getY() - p0.getY(), dz = p.getZ() - p0.getZ();
+        double va = v.getX() * a.getX() + v.getY() * a.getY() + v.getZ() * a.getZ();
+        double da = dx * a.getX() + dy * a.getY() + dz * a.getZ();
+
+        double[] t = new double[2];
+        int count = 0;
+        for (double side : super.findParameters(ray, max)) {
+            double s = da + side * va; // the height of the point along the axis
+            if (alignZero(s) > 0 && alignZero(s - height) < 0)
+                t[count++] = side;
         }
-        // find the normal vector on the top base
-        Vector v2 = axisRay.getDir().scale(axisRay.getDir().normalize().dotProduct(v1));
-        if (v1.normalize().equals(v2.normalize())) {
-            throw (new IllegalArgumentException("ERROR: Point is versicle to the ray"));
-        } else if (v1.equals(v2)) {
-            return axisRay.getDir();
-        } else {
-            Vector normal = v1.subtract(v2);
-            return normal.length() == radius ? normal.normalize() : axisRay.getDir();
+        if (!isZero(va)) {
+            count = addBase(t, count, -da / va, 0, dx, dy, dz, v, max);
+            count = addBase(t, count, (height - da) / va, height, dx, dy, dz, v, max);
         }
+
+        if (count == 0)
+            return NO_PARAMETERS;
+        if (count == 1)
+            return new double[] { t[0] };
+        return t[0] < t[1] ? new double[] { t[0], t[1] } : new double[] { t[1], t[0] };
+    }
+
+    /**
+     * Add the intersection with a base plane if it is inside the base
+     *
+     * @param t      the found ray parameters
+     * @param count  amount of the found ray parameters
+     * @param tBase  the ray parameter of the base plane
+     * @param s      the height of the base along the axis
+     * @param dx     ray head minus axis head (x)
+     * @param dy     ray head minus axis head (y)
+     * @param dz     ray head minus axis head (z)
+     * @param v      the ray direction
+     * @param max    the maximum distance of the ray
+     * @return the new amount of the found ray parameters
+     */
+    private int addBase(double[] t, int count, double tBase, double s, double dx, double dy, double dz, Vector v,
+            double max) {
+        tBase = alignZero(tBase);
+        if (tBase <= 0 || alignZero(tBase - max) > 0 || count == 2)
+            return count;
+        double x = dx + tBase * v.getX(), y = dy + tBase * v.getY(), z = dz + tBase * v.getZ();
+        // squared distance from the axis
+        if (alignZero(x * x + y * y + z * z - s * s - radius * radius) < 0)
+            t[count++] = tBase;
+        return count;
+    }
+
+    /**
+     * The box of the cylinder is the box of its two bases - the extent of a base
+     * on each axis is radius * sin(angle between the axis and the cylinder axis)
+     * 
+     * @return the bounding box of the cylinder
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Point bottom = axisRay.getP0();
+        Point top = axisRay.getPoint(height);
+        Vector dir = axisRay.getDir();
+        double ex = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        return new BoundingBox(
+                Math.min(bottom.getX(), top.getX()) - ex,
+                Math.min(bottom.getY(), top.getY()) - ey,
+                Math.min(bottom.getZ(), top.getZ()) - ez,
+                Math.max(bottom.getX(), top.getX()) + ex,
+                Math.max(bottom.getY(), top.getY()) + ey,
+                Math.max(bottom.getZ(), top.getZ()) + ez);
     }
 
     @Override
@@ -6,7 +6,13 @@ import java.util.List;
 import primitives.*;
 
 /**
- * This class represents an bundle of geometric bodies
+ * This class represents an bundle of geometric bodies.
+ * A bundle of bounded geometries is culled by its bounding box, so nested
+ * bundles of close geometries are skipped as a whole by rays that pass far
+ * from them. The bundle can be accelerated by a bounding volume hierarchy
+ * (BVH) - see {@link #setBVH(boolean)}.<br/>
+ * A bundle may be changed after it was added to other bundles: the boxes and
+ * the accelerations of the bundles that contain it are dropped with its own
  */
 public class Geometries extends Intersectable {
 
@@ -15,9 +21,41 @@ public class Geometries extends Intersectable {
      */
     private final List<Intersectable> geometries = new LinkedList<>();
 
+    /**
+     * Use a BVH for the bounded geometries
+     */
+    private boolean bvh = false;
+
+    /**
+     * The acceleration of the current geometries, built lazily on the first query
+     * (null when not built yet or after the bundle has changed)
+     */
+    private volatile Acceleration acceleration = null;
+
+    /**
+     * The bundles that contain this bundle
+     */
+    private final List<Geometries> parents = new LinkedList<>();
+
+    /**
+     * Helping class - an acceleration structure over the bounded geometries,
+     * together with the geometries that can't be bounded (e.g. planes and tubes)
+     */
+    private static class Acceleration {
+        final AccelerationStructure structure;
+        final Intersectable[] bounded;
+        final List<Intersectable> unbounded;
+
+        Acceleration(AccelerationStructure structure, Intersectable[] bounded, List<Intersectable> unbounded) {
+            this.structure = structure;
+            this.bounded = bounded;
+            this.unbounded = unbounded;
+        }
+    }
+
     /**
      * Constructor with list of geometries
-     * 
+     *
      * @param list of geometries
      */
     public Geometries(Intersectable... geometries) {
@@ -26,25 +64,204 @@ public class Geometries extends Intersectable {
 
     /**
      * Add geometries to the bundle of geometries
-     * 
+     *
      * @param geometries to add to the list
      */
     public void add(Intersectable... geometries) {
-        if (geometries.length > 0) this.geometries.addAll(List.of(geometries));
+        if (geometries.length > 0) {
+            this.geometries.addAll(List.of(geometries));
+            for (var geo : geometries)
+                if (geo instanceof Geometries bundle)
+                    bundle.parents.add(this);
+            invalidate();
+        }
+    }
+
+    /**
+     * Drop the acceleration and the bounding box of the bundle and of the bundles
+     * that contain it (after the bundle has changed)
+     */
+    private void invalidate() {
+        acceleration = null;
+        resetBoundingBox();
+        for (var parent : parents)
+            parent.invalidate();
+    }
+
+    /**
+     * Setter of the BVH mode. When it is on, the bounded geometries are organized
+     * in a bounding volume hierarchy (built with the surface area heuristic) and
+     * the unbounded ones are kept in a side list, so the cost of a ray is
+     * logarithmic in the amount of the geometries
+     *
+     * @param bvh true to use BVH
+     * @return the geometries bundle
+     */
+    public Geometries setBVH(boolean bvh) {
+        this.bvh = bvh;
+        acceleration = null;
+        return this;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = null;
+        for (var geo : geometries) {
+            BoundingBox geoBox = geo.getBoundingBox();
+            if (geoBox == null)
+                return null;
+            box = box == null ? geoBox : box.union(geoBox);
+        }
+        return box;
     }
 
     /**
      * This function returns all the {@link GeoPoint} intersection points with a ray
      * and the
-     * geometries in the bundle
-     * 
+     * geometries in the bundle.
+     * A bounded bundle is rejected as a whole by a slab test against its box
+     *
      * @param ray that may has intersection points with the geometries
      * @param max the maximum distance of the ray
      * @return list of the intersection points
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double max) {
-        List<GeoPoint> intersections = null;
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, max))
+            return null;
+
+        if (!isAccelerated())
+            return findGeoIntersections(geometries, ray, max, null);
+
+        Acceleration acc = getAcceleration();
+        List<GeoPoint> intersections = new LinkedList<>();
+        acc.structure.traverse(ray, max, (i, distance) -> {
+            var geoIntersections = acc.bounded[i].findGeoIntersections(ray, distance);
+            if (geoIntersections != null)
+                intersections.addAll(geoIntersections);
+            return distance;
+        });
+        return findGeoIntersections(acc.unbounded, ray, max,
+                intersections.isEmpty() ? null : intersections);
+    }
+
+    /**
+     * This function returns the closest {@link GeoPoint} intersection point with a
+     * ray and the geometries in the bundle.
+     * The maximum distance of the ray shrinks to each closer intersection found,
+     * so farther geometries (and, with acceleration, farther regions) are skipped
+     *
+     * @param ray that may has intersection points with the geometries
+     * @param max the maximum distance of the ray
+     * @return the closest intersection point or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, max))
+            return null;
+
+        if (!isAccelerated())
+            return findClosestGeoIntersection(geometries, ray, max, null);
+
+        Acceleration acc = getAcceleration();
+        GeoPoint[] closest = new GeoPoint[1];
+        max = acc.structure.traverse(ray, max, (i, distance) -> {
+            GeoPoint gp = acc.bounded[i].findClosestGeoIntersection(ray, distance);
+            if (gp == null || closest[0] != null && gp.t >= closest[0].t)
+                return distance;
+            closest[0] = gp;
+            return gp.t;
+        });
+        return findClosestGeoIntersection(acc.unbounded, ray, max, closest[0]);
+    }
+
+    /**
+     * Find the closest intersection of a ray with a list of geometries, the
+     * maximum distance shrinks to each closer intersection found
+     *
+     * @param geometries to intersect
+     * @param ray        that may has intersection points with the geometries
+     * @param max        the maximum distance of the ray
+     * @param closest    already found closest intersection (may be null)
+     * @return the closest intersection point, or null if there is none
+     */
+    private static GeoPoint findClosestGeoIntersection(List<Intersectable> geometries, Ray ray, double max,
+            GeoPoint closest) {
+        for (var geo : geometries) {
+            GeoPoint gp = geo.findClosestGeoIntersection(ray, max);
+            if (gp != null && (closest == null || gp.t < closest.t)) {
+                closest = gp;
+                max = gp.t;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * This function returns the transparency along a ray through the geometries in
+     * the bundle, the traversal stops at the first geometry that makes it lower
+     * than minK (e.g. an opaque one)
+     *
+     * @param ray  the (shadow) ray
+     * @param max  the maximum distance of the ray
+     * @param ktr  the transparency accumulated so far
+     * @param minK the lowest transparency that is still considered
+     * @return the accumulated transparency, {@link Double3#ZERO} if it is lower
+     *         than minK
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double max, Double3 ktr, double minK) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, max))
+            return ktr;
+
+        if (!isAccelerated())
+            return findTransparency(geometries, ray, max, ktr, minK);
+
+        Acceleration acc = getAcceleration();
+        Double3[] transparency = { ktr };
+        if (acc.structure.traverse(ray, max, (i, distance) -> {
+            transparency[0] = acc.bounded[i].findTransparencyHelper(ray, distance, transparency[0], minK);
+            return transparency[0].lowerThan(minK) ? -1 : distance;
+        }) < 0)
+            return Double3.ZERO;
+        return findTransparency(acc.unbounded, ray, max, transparency[0], minK);
+    }
+
+    /**
+     * Accumulate the transparency of a ray through a list of geometries
+     *
+     * @param geometries to intersect
+     * @param ray        the (shadow) ray
+     * @param max        the maximum distance of the ray
+     * @param ktr        the transparency accumulated so far
+     * @param minK       the lowest transparency that is still considered
+     * @return the accumulated transparency, {@link Double3#ZERO} if it is lower
+     *         than minK
+     */
+    private static Double3 findTransparency(List<Intersectable> geometries, Ray ray, double max, Double3 ktr,
+            double minK) {
+        for (var geo : geometries) {
+            ktr = geo.findTransparencyHelper(ray, max, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * Collect the intersections of a ray with each of a list of geometries
+     *
+     * @param geometries    to intersect
+     * @param ray           that may has intersection points with the geometries
+     * @param max           the maximum distance of the ray
+     * @param intersections already found intersections (may be null)
+     * @return list of the intersection points, or null if there are none
+     */
+    private static List<GeoPoint> findGeoIntersections(List<Intersectable> geometries, Ray ray, double max,
+            List<GeoPoint> intersections) {
         for (var geo : geometries) {
             var geoIntersections = geo.findGeoIntersections(ray, max);
             if (geoIntersections != null) {
@@ -56,4 +273,77 @@ public class Geometries extends Intersectable {
         }
         return intersections;
     }
+
+    /**
+     * returns the acceleration of the current geometries, builds it if needed
+     * (thread safe)
+     *
+     * @return the acceleration
+     */
+    private Acceleration getAcceleration() {
+        Acceleration acc = acceleration;
+        if (acc == null) {
+            synchronized (this) {
+                acc = acceleration;
+                if (acc == null)
+                    acceleration = acc = buildAcceleration();
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Checks whether the bundle uses an acceleration structure
+     *
+     * @return true if the acceleration structure is used
+     */
+    boolean isAccelerated() {
+        return bvh;
+    }
+
+    /**
+     * Build the acceleration structure over the boxes of the bounded geometries
+     *
+     * @param boxes bounds of the geometries, 6 numbers per geometry: minX, minY,
+     *              minZ, maxX, maxY, maxZ
+     * @param count amount of the geometries
+     * @return the acceleration structure (BVH)
+     */
+    AccelerationStructure buildStructure(double[] boxes, int count) {
+        return new BoundingVolumeHierarchy(boxes, count);
+    }
+
+    /**
+     * Split the geometries into bounded and unbounded ones and build the
+     * acceleration structure over the boxes of the bounded ones
+     *
+     * @return the acceleration
+     */
+    private Acceleration buildAcceleration() {
+        List<Intersectable> bounded = new LinkedList<>();
+        List<BoundingBox> boxes = new LinkedList<>();
+        List<Intersectable> unbounded = new LinkedList<>();
+        for (var geo : geometries) {
+            BoundingBox box = geo.getBoundingBox();
+            if (box == null)
+                unbounded.add(geo);
+            else {
+                bounded.add(geo);
+                boxes.add(box);
+            }
+        }
+
+        double[] bounds = new double[6 * boxes.size()];
+        int b = 0;
+        for (BoundingBox box : boxes) {
+            bounds[b++] = box.minX;
+            bounds[b++] = box.minY;
+            bounds[b++] = box.minZ;
+            bounds[b++] = box.maxX;
+            bounds[b++] = box.maxY;
+            bounds[b++] = box.maxZ;
+        }
+        return new Acceleration(buildStructure(bounds, boxes.size()),
+                bounded.toArray(new Intersectable[0]), unbounded);
+    }
 }
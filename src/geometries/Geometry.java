@@ -22,6 +22,18 @@ public abstract class Geometry extends Intersectable {
      */
     public abstract Vector getNormal(Point point);
 
+    /**
+     * Getter of the normal of a geometry that is made of faces, at a point of a
+     * known face - by default the face is ignored
+     * 
+     * @param point on the geometry
+     * @param face  the index of the face that contains the point
+     * @return normal of Geometry
+     */
+    protected Vector getNormal(Point point, int face) {
+        return getNormal(point);
+    }
+
     /**
      * Getter of the emission color of the geometry
      * 
@@ -60,4 +72,15 @@ public abstract class Geometry extends Intersectable {
         this.material = material;
         return this;
     }
+
+    /**
+     * An opaque geometry blocks the ray by any intersection, so only the closest
+     * one is searched (without a list of all the intersections)
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!ktr.product(material.kT).lowerThan(minK))
+            return super.findTransparencyHelper(ray, maxDistance, ktr, minK);
+        return findClosestGeoIntersectionHelper(ray, maxDistance) == null ? ktr : Double3.ZERO;
+    }
 }
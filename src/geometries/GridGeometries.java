@@ -0,0 +1,37 @@
+package geometries;
+
+/**
+ * This class represents a bundle of geometric bodies that is accelerated by a
+ * uniform grid of voxels instead of a tree.
+ * For scenes of many similar small geometries (e.g. clusters of spheres) the
+ * grid is cheaper to build and to walk than a BVH. The grid resolution is
+ * chosen automatically by the amount of the geometries and their bounds, and
+ * the grid is rebuilt lazily after geometries are added.
+ * The unbounded geometries (planes, tubes) are kept in a side list.
+ * It can be used in a scene in place of {@link Geometries}:
+ *
+ * <pre>
+ * scene.setGeometries(new GridGeometries(...));
+ * </pre>
+ */
+public class GridGeometries extends Geometries {
+
+    /**
+     * Constructor with list of geometries
+     *
+     * @param geometries list of geometries
+     */
+    public GridGeometries(Intersectable... geometries) {
+        super(geometries);
+    }
+
+    @Override
+    boolean isAccelerated() {
+        return true;
+    }
+
+    @Override
+    AccelerationStructure buildStructure(double[] boxes, int count) {
+        return new UniformGrid(boxes, count);
+    }
+}
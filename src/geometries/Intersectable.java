@@ -11,6 +11,16 @@ import primitives.*;
  */
 public abstract class Intersectable {
 
+    /**
+     * Marks a bounding box which was not calculated yet
+     */
+    private static final BoundingBox NOT_CALCULATED = new BoundingBox(0, 0, 0, 0, 0, 0);
+
+    /**
+     * The cached bounding box (null for an unbounded geometry)
+     */
+    private BoundingBox boundingBox = NOT_CALCULATED;
+
     /**
      * This function returns all the intersection points of the geometry
      * 
@@ -22,6 +32,34 @@ public abstract class Intersectable {
         return geoList == null ? null : geoList.stream().map(gp -> gp.point).toList();
     }
 
+    /**
+     * Getter of the axis-aligned bounding box of the geometry, used for culling
+     * rays and for building acceleration structures.
+     * The box is calculated once by {@link #calcBoundingBox()} and cached
+     * 
+     * @return the bounding box, or null if the geometry is unbounded
+     */
+    public final BoundingBox getBoundingBox() {
+        BoundingBox box = boundingBox;
+        if (box == NOT_CALCULATED)
+            boundingBox = box = calcBoundingBox();
+        return box;
+    }
+
+    /**
+     * Calculate the axis-aligned bounding box of the geometry
+     * 
+     * @return the bounding box, or null if the geometry is unbounded
+     */
+    protected abstract BoundingBox calcBoundingBox();
+
+    /**
+     * Drop the cached bounding box (for geometries that have been changed)
+     */
+    protected void resetBoundingBox() {
+        boundingBox = NOT_CALCULATED;
+    }
+
     /**
      * Helping class (contained in {@link Intersectable})
      * Attributes a point to the geometric type to which it belongs
@@ -29,6 +67,25 @@ public abstract class Intersectable {
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        /**
+         * the ray parameter (distance from the ray head) of the point, NaN if unknown
+         */
+        public double t = Double.NaN;
+        /**
+         * the normal of the geometry at the point, null if it was not calculated yet
+         * (see {@link #getNormal()})
+         */
+        public Vector normal = null;
+        /**
+         * the index of the face of the geometry that contains the point (for
+         * geometries made of faces, e.g. {@link TriangleMesh}), -1 if unknown
+         */
+        public int face = -1;
+        /**
+         * the material of the geometry, null if it was not fetched yet (see
+         * {@link #getMaterial()})
+         */
+        private Material material = null;
 
         /**
          * constructor for helping class GeoPoint
@@ -42,6 +99,59 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * constructor for helping class GeoPoint of an intersection point
+         * 
+         * @param geometry initialize geometry field
+         * @param point    initialize point field
+         * @param t        the ray parameter of the point
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+        }
+
+        /**
+         * constructor for helping class GeoPoint of an intersection point on a
+         * face of a geometry (e.g. of a mesh), whose normal is found by the face
+         * 
+         * @param geometry initialize geometry field
+         * @param point    initialize point field
+         * @param t        the ray parameter of the point
+         * @param face     the index of the face of the point
+         */
+        public GeoPoint(Geometry geometry, Point point, double t, int face) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+            this.face = face;
+        }
+
+        /**
+         * Getter of the normal of the geometry at the point - the normal that was
+         * found with the point, or the normal of the geometry by the point (and its
+         * face, if known) that is calculated once on the first call
+         * 
+         * @return the normal of the geometry at the point
+         */
+        public Vector getNormal() {
+            if (normal == null)
+                normal = face < 0 ? geometry.getNormal(point) : geometry.getNormal(point, face);
+            return normal;
+        }
+
+        /**
+         * Getter of the material of the geometry (fetched once on the first call)
+         * 
+         * @return the material of the geometry
+         */
+        public Material getMaterial() {
+            if (material == null)
+                material = geometry.getMaterial();
+            return material;
+        }
+
         @Override
         public String toString() {
             return ("geometry: " + geometry + ", point: " + point);
@@ -86,4 +196,94 @@ public abstract class Intersectable {
      * @return a list of points that intersect a geometry
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
+
+    /**
+     * The function returns the closest intersection point between a ray and
+     * geometry
+     * 
+     * @param ray that may has intersection with a geometry
+     * @return the closest intersection (with its ray parameter t) or null if there
+     *         is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * The function returns the closest intersection point between a ray and
+     * geometry, within a maximum distance
+     * 
+     * @param ray         that may has intersection with a geometry
+     * @param maxDistance the maximum distance of the ray
+     * @return the closest intersection (with its ray parameter t) or null if there
+     *         is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Helper function for {@link #findClosestGeoIntersection}.
+     * The default implementation picks the closest point of
+     * {@link #findGeoIntersectionsHelper} (and sets its t if it is unknown),
+     * geometries override it to avoid the list and bundles to shrink the maximum
+     * distance while they go
+     * 
+     * @param ray         that may has intersection with a geometry
+     * @param maxDistance the maximum distance of the ray
+     * @return the closest intersection or null if there is no intersection
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return null;
+        GeoPoint closest = null;
+        for (GeoPoint gp : intersections) {
+            if (Double.isNaN(gp.t)) // the direction is normalized - t is the distance
+                gp.t = ray.getP0().distance(gp.point);
+            if (closest == null || gp.t < closest.t)
+                closest = gp;
+        }
+        return closest;
+    }
+
+    /**
+     * The function returns the transparency along a ray up to a maximum distance -
+     * the product of the transparency coefficients ({@link Material#kT}) of all
+     * the intersected geometries (e.g. between a point and a light source).
+     * The search stops as soon as the transparency drops below minK
+     * 
+     * @param ray         the (shadow) ray
+     * @param maxDistance the maximum distance of the ray
+     * @param minK        the lowest transparency that is still considered
+     * @return the transparency, {@link Double3#ZERO} if it is lower than minK
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE, minK);
+    }
+
+    /**
+     * Helper function for {@link #findTransparency}.
+     * The default implementation multiplies the transparency by each point of
+     * {@link #findGeoIntersectionsHelper}, geometries override it to stop at the
+     * first opaque one
+     * 
+     * @param ray         the (shadow) ray
+     * @param maxDistance the maximum distance of the ray
+     * @param ktr         the transparency accumulated so far
+     * @param minK        the lowest transparency that is still considered
+     * @return the accumulated transparency, {@link Double3#ZERO} if it is lower
+     *         than minK
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return ktr;
+        for (GeoPoint gp : intersections) {
+            ktr = ktr.product(gp.getMaterial().kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 }
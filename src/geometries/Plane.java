@@ -66,21 +66,41 @@ public class Plane extends Geometry {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double max) {
+        GeoPoint intersection = findClosestGeoIntersectionHelper(ray, max);
+        return intersection == null ? null : List.of(intersection);
+    }
+
+    /**
+     * return the {@link GeoPoint} intersection between plane and ray (a ray
+     * intersects a plane at most once)
+     * 
+     * @param ray that may has intersection with the plane
+     * @param max the maximum distance of the ray
+     * @return the intersection or null if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
 
-        Vector u;
-        try {
-            u = q0.subtract(ray.getP0());
-        } catch (IllegalArgumentException ignore) {
+        Vector u = q0.trySubtract(ray.getP0());
+        if (u == null) // the ray starts at the reference point of the plane
             return null;
-        }
 
         double nv = ray.getDir().dotProduct(normal);
         if (isZero(nv))
             return null;
 
         double t = alignZero(u.dotProduct(normal) / nv);
-        Point point = ray.getPoint(t);
-        return t > 0 && alignZero(max - t) >= 0 ? List.of(new GeoPoint(this, point)) : null;
+        return t > 0 && alignZero(max - t) >= 0 ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
+
+    /**
+     * A plane is infinite
+     * 
+     * @return null - the plane is unbounded
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return null;
     }
 
     @Override
@@ -1,6 +1,5 @@
 package geometries;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import primitives.*;
@@ -20,6 +19,13 @@ public class Polygon extends Geometry {
 	 */
 	protected final Plane plane;
 	private int size;
+	/**
+	 * The in-plane normals of the edges (pointing inwards, unit length) and their
+	 * offsets - 4 numbers per edge: a point P of the plane is inside the polygon if
+	 * mx*Px + my*Py + mz*Pz - d > 0 for all the edges (null for a subclass that
+	 * intersects by its own kernel, e.g. {@link Triangle})
+	 */
+	private final double[] edges;
 
 	/**
 	 * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -43,6 +49,20 @@ public class Polygon extends Geometry {
 	 *                                  </ul>
 	 */
 	public Polygon(Point... vertices) {
+		this(true, vertices);
+	}
+
+	/**
+	 * Polygon constructor based on vertices list (see {@link #Polygon(Point...)}),
+	 * for subclasses that may skip the in-plane normals of the edges since they
+	 * override the intersection of the polygon
+	 * 
+	 * @param edgeNormals true to calculate the in-plane normals of the edges
+	 * @param vertices    list of vertices according to their order by edge path
+	 * @throws IllegalArgumentException in any case of illegal combination of
+	 *                                  vertices (see {@link #Polygon(Point...)})
+	 */
+	protected Polygon(boolean edgeNormals, Point... vertices) {
 		if (vertices.length < 3)
 			throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
 		this.vertices = List.of(vertices);
@@ -50,11 +70,19 @@ public class Polygon extends Geometry {
 		// polygon with this plane.
 		// The plane holds the invariant normal (orthogonal unit) vector to the polygon
 		plane = new Plane(vertices[0], vertices[1], vertices[2]);
+		Vector n = plane.getNormal();
+		edges = edgeNormals ? new double[4 * vertices.length] : null;
+		for (int i = 0; edgeNormals && i < vertices.length; ++i) {
+			Point vertex = vertices[i];
+			Vector m = n.crossProduct(vertices[(i + 1) % vertices.length].subtract(vertex)).normalize();
+			edges[4 * i] = m.getX();
+			edges[4 * i + 1] = m.getY();
+			edges[4 * i + 2] = m.getZ();
+			edges[4 * i + 3] = m.getX() * vertex.getX() + m.getY() * vertex.getY() + m.getZ() * vertex.getZ();
+		}
 		if (vertices.length == 3)
 			return; // no need for more tests for a Triangle
 
-		Vector n = plane.getNormal();
-
 		// Subtracting any subsequent points will throw an IllegalArgumentException
 		// because of Zero Vector if they are in the same point
 		Vector edge1 = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -94,6 +122,11 @@ public class Polygon extends Geometry {
 		return plane.getNormal();
 	}
 
+	@Override
+	protected BoundingBox calcBoundingBox() {
+		return new BoundingBox(vertices.toArray(new Point[0]));
+	}
+
 	/**
 	 * Given a ray, find all the points where the ray intersects the sphere
 	 *
@@ -102,38 +135,43 @@ public class Polygon extends Geometry {
 	 */
 	@Override
 	protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double max) {
+		GeoPoint intersection = findClosestGeoIntersectionHelper(ray, max);
+		return intersection == null ? null : List.of(intersection);
+	}
 
-
-		int len = vertices.size();
+	/**
+	 * Given a ray, find the point where the ray intersects the polygon (a ray
+	 * intersects a polygon at most once).
+	 * The plane is intersected, then the point is tested against the in-plane
+	 * normals of the edges (the edges are not included)
+	 *
+	 * @param ray The ray to test for intersections.
+	 * @param max the maximum distance of the ray
+	 * @return the intersection or null if there is no intersection
+	 */
+	@Override
+	protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
 		Point p0 = ray.getP0();
 		Vector v = ray.getDir();
-		List<Vector> vectors = new ArrayList<>(len);
-	
-		//all the vectors
-		for (Point vertex : vertices) {
-		  vectors.add(vertex.subtract(p0));
-		}
-	
-		int sign = 0;
-		for (int i = 0; i < len; i++) {
-		  // calculate the normal using the formula in the course slides
-		  Vector N = vectors.get(i).crossProduct(vectors.get((i+1)%len)).normalize();
-		  double dotProd = v.dotProduct(N);
-	
-		  if (i == 0)
-			sign = dotProd > 0 ? 1 : -1;
-	
-		  if (!checkSign(sign,dotProd) || isZero(dotProd))
+		Vector n = plane.getNormal();
+		Point q0 = plane.getQ0();
+		double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+		double nv = nx * v.getX() + ny * v.getY() + nz * v.getZ();
+		if (isZero(nv))
 			return null;
-		}
-		List<GeoPoint> geoPoints = plane.findGeoIntersectionsHelper(ray,max);
-		List<GeoPoint> newGeoPoints = new ArrayList<>();
-		if (geoPoints == null)
-		  return null;
-		for (GeoPoint geo : geoPoints) {
-		  newGeoPoints.add(new Intersectable.GeoPoint(this, geo.point));
-		}
-		return newGeoPoints;
-		}
+
+		double t = alignZero((nx * (q0.getX() - p0.getX()) + ny * (q0.getY() - p0.getY())
+				+ nz * (q0.getZ() - p0.getZ())) / nv);
+		if (t <= 0 || alignZero(t - max) > 0)
+			return null;
+
+		double x = p0.getX() + t * v.getX();
+		double y = p0.getY() + t * v.getY();
+		double z = p0.getZ() + t * v.getZ();
+		for (int e = 0; e < edges.length; e += 4)
+			if (alignZero(edges[e] * x + edges[e + 1] * y + edges[e + 2] * z - edges[e + 3]) <= 0)
+				return null;
+		return new GeoPoint(this, ray.getPoint(t), t);
+	}
 
 }
@@ -58,12 +58,9 @@ public class Sphere extends Geometry {
         Vector v = ray.getDir();
         Point p = ray.getP0();
 
-        Vector u;
-        try {
-            u = center.subtract(p);
-        } catch (IllegalArgumentException ignore) {
-            return List.of(new GeoPoint(this, ray.getPoint(radius)));
-        }
+        Vector u = center.trySubtract(p);
+        if (u == null) // the ray starts at the center
+            return List.of(new GeoPoint(this, ray.getPoint(radius), radius));
 
         double tm = v.dotProduct(u);
         double dSqr = u.lengthSquared() - (tm * tm);
@@ -82,11 +79,42 @@ public class Sphere extends Geometry {
             return null;
 
         if (alignZero(t2 - max) > 0) // far point is beyond the maximum distance
-            return t1 <= 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t1)));
+            return t1 <= 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t1), t1));
 
         else // far point is inside the required interval
-            return t1 <= 0 ? List.of(new GeoPoint(this, ray.getPoint(t2)))
-                    : List.of(new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
+            return t1 <= 0 ? List.of(new GeoPoint(this, ray.getPoint(t2), t2))
+                    : List.of(new GeoPoint(this, ray.getPoint(t1), t1), new GeoPoint(this, ray.getPoint(t2), t2));
+    }
+
+    /**
+     * This function returns the closest {@link GeoPoint} intersection between a ray
+     * and the sphere - the near point if it is in front of the ray head, the far
+     * point otherwise
+     * 
+     * @param ray that may has intersection with the sphere
+     * @param max the maximum distance of the ray
+     * @return the closest intersection point or null if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
+        Point p = ray.getP0();
+        double ux = center.getX() - p.getX();
+        double uy = center.getY() - p.getY();
+        double uz = center.getZ() - p.getZ();
+        double uSqr = ux * ux + uy * uy + uz * uz;
+        if (isZero(uSqr)) // the ray starts at the center
+            return alignZero(radius - max) > 0 ? null : new GeoPoint(this, ray.getPoint(radius), radius);
+
+        Vector v = ray.getDir();
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double thSqr = radiusSqr - (uSqr - tm * tm);
+        if (alignZero(thSqr) <= 0)
+            return null;
+
+        double th = Math.sqrt(thSqr);
+        double t1 = alignZero(tm - th);
+        double t = t1 > 0 ? t1 : alignZero(tm + th);
+        return t <= 0 || alignZero(t - max) > 0 ? null : new GeoPoint(this, ray.getPoint(t), t);
     }
 
     /**
@@ -99,6 +127,12 @@ public class Sphere extends Geometry {
         return point.subtract(center).normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     @Override
     public String toString() {
         return "(" + center.toString() + "," + radius + ")";
@@ -12,23 +12,42 @@ import static primitives.Util.*;
  */
 public class Triangle extends Polygon {
 
+    /**
+     * coordinates of the first vertex
+     */
+    private final double ax, ay, az;
+    /**
+     * edge vectors from the first vertex to the second (e1) and to the third (e2)
+     */
+    private final double e1x, e1y, e1z, e2x, e2y, e2z;
+
     /**
      * constructor of triangle based on three Points
-     * (using super constructor of Polygon)
+     * (using super constructor of Polygon, without the in-plane normals of the
+     * edges of the polygon's kernel)
      * 
      * @param p1 first point
      * @param p2 second point
      * @param p3 third point
      */
     public Triangle(Point p1, Point p2, Point p3) {
-        super(p1, p2, p3);
+        super(false, p1, p2, p3);
+        ax = p1.getX();
+        ay = p1.getY();
+        az = p1.getZ();
+        e1x = p2.getX() - ax;
+        e1y = p2.getY() - ay;
+        e1z = p2.getZ() - az;
+        e2x = p3.getX() - ax;
+        e2y = p3.getY() - ay;
+        e2z = p3.getZ() - az;
     }
 
     /**
      * return a list of intersections between triangle and ray
-     * find intersections using barycentric method
+     * find intersections using barycentric method (Moller-Trumbore)
      * I is the traced point on the ray
-     * if (0 < a, b < 1) => I is inside the triangle
+     * if (0 < a, b, a + b < 1) => I is inside the triangle
      * 
      * @param ray that may has intersection with the triangle
      * @param max the maximum distance of the ray
@@ -36,32 +55,44 @@ public class Triangle extends Polygon {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double max) {
-        List<GeoPoint> intersections = plane.findGeoIntersections(ray, max);
-        if (intersections == null)
-            return null;
+        GeoPoint intersection = findClosestGeoIntersectionHelper(ray, max);
+        return intersection == null ? null : List.of(intersection);
+    }
 
+    /**
+     * return the intersection between triangle and ray (a ray intersects a
+     * triangle at most once), see {@link #findGeoIntersectionsHelper(Ray, double)}
+     * 
+     * @param ray that may has intersection with the triangle
+     * @param max the maximum distance of the ray
+     * @return the intersection point or null if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
         Point p0 = ray.getP0();
         Vector v = ray.getDir();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
 
-        Vector v1 = vertices.get(0).subtract(p0);
-        Vector v2 = vertices.get(1).subtract(p0);
-        Vector n1 = v1.crossProduct(v2).normalize();
-        double s1 = alignZero(v.dotProduct(n1));
-        if (s1 == 0)
+        // p = v x e2, the ray is parallel to the triangle if det is zero
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
             return null;
+        double inv = 1 / det;
 
-        Vector v3 = vertices.get(2).subtract(p0);
-        Vector n2 = v2.crossProduct(v3).normalize();
-        double s2 = v.dotProduct(n2);
-        if (s1 * s2 <= 0)
+        // the barycentric coordinates of the point - the edges are not included
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double a = (sx * px + sy * py + sz * pz) * inv;
+        if (a <= 0 || a >= 1)
             return null;
 
-        Vector n3 = v3.crossProduct(v1).normalize();
-        double s3 = v.dotProduct(n3);
-        if (s1 * s3 <= 0)
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double b = (dx * qx + dy * qy + dz * qz) * inv;
+        if (b <= 0 || a + b >= 1)
             return null;
 
-        intersections.get(0).geometry = this;
-        return intersections;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return t <= 0 || alignZero(t - max) > 0 ? null : new GeoPoint(this, ray.getPoint(t), t);
     }
 }
@@ -0,0 +1,279 @@
+package geometries;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import primitives.*;
+import static primitives.Util.*;
+
+/**
+ * This class represents a mesh of triangles that share their vertices.
+ * The vertices and the faces are kept in flat arrays of numbers (3 coordinates
+ * per vertex and 3 vertex indices per face) instead of objects, and the faces
+ * are organized in a bounding volume hierarchy, so a mesh of millions of
+ * triangles fits in memory and is intersected in a logarithmic time.
+ * All the faces share the emission and the material of the mesh, and each
+ * intersection point carries the index of its face (for its normal).
+ * Unlike {@link Triangle}, a ray that hits an edge or a vertex does intersect
+ * the mesh, so there are no cracks between adjacent faces - and it intersects
+ * the mesh there once, not once per face of the edge or the vertex, so the
+ * transparency of the mesh is not applied twice
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class TriangleMesh extends Geometry {
+
+    /**
+     * coordinates of the vertices: x, y, z of each vertex
+     */
+    private final double[] vertices;
+
+    /**
+     * indices of the vertices of the faces: 3 indices per face
+     */
+    private final int[] faces;
+
+    /**
+     * BVH over the faces
+     */
+    private final BoundingVolumeHierarchy bvh;
+
+    /**
+     * Constructor of a mesh from flat arrays (the arrays are used as is, not
+     * copied)
+     *
+     * @param vertices coordinates of the vertices: x, y, z of each vertex
+     * @param faces    indices of the vertices of the faces: 3 indices per face
+     * @throws IllegalArgumentException if the arrays are empty or not triples, or
+     *                                  a face refers to a vertex that does not
+     *                                  exist
+     */
+    public TriangleMesh(double[] vertices, int[] faces) {
+        if (vertices.length == 0 || vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices must be a non-empty array of coordinate triples");
+        if (faces.length == 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("The faces must be a non-empty array of index triples");
+        int count = vertices.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= count)
+                throw new IllegalArgumentException("A face refers to a vertex that does not exist: " + index);
+
+        this.vertices = vertices;
+        this.faces = faces;
+
+        double[] boxes = new double[2 * faces.length];
+        for (int f = 0, b = 0; f < faces.length; f += 3, b += 6) {
+            int a = 3 * faces[f], c = 3 * faces[f + 1], d = 3 * faces[f + 2];
+            for (int axis = 0; axis < 3; ++axis) {
+                boxes[b + axis] = Math.min(vertices[a + axis], Math.min(vertices[c + axis], vertices[d + axis]));
+                boxes[b + axis + 3] = Math.max(vertices[a + axis], Math.max(vertices[c + axis], vertices[d + axis]));
+            }
+        }
+        bvh = new BoundingVolumeHierarchy(boxes, faces.length / 3);
+    }
+
+    /**
+     * Constructor of a mesh from a list of vertices
+     *
+     * @param vertices the vertices
+     * @param faces    indices of the vertices of the faces: 3 indices per face
+     * @throws IllegalArgumentException if the arrays are empty, the faces are not
+     *                                  triples, or a face refers to a vertex that
+     *                                  does not exist
+     */
+    public TriangleMesh(Point[] vertices, int[] faces) {
+        this(coordinates(vertices), faces);
+    }
+
+    /**
+     * returns the coordinates of the points in a flat array
+     */
+    private static double[] coordinates(Point[] points) {
+        double[] coordinates = new double[3 * points.length];
+        for (int i = 0; i < points.length; ++i) {
+            coordinates[3 * i] = points[i].getX();
+            coordinates[3 * i + 1] = points[i].getY();
+            coordinates[3 * i + 2] = points[i].getZ();
+        }
+        return coordinates;
+    }
+
+    /**
+     * Getter of the amount of the faces of the mesh
+     *
+     * @return amount of the faces
+     */
+    public int getFacesCount() {
+        return faces.length / 3;
+    }
+
+    /**
+     * Calculate the normal of a face
+     *
+     * @param face index of the face
+     * @return the normal of the face (by the order of its vertices, as in
+     *         {@link Plane#Plane(Point, Point, Point)}), null if the face is
+     *         degenerate
+     */
+    public Vector getFaceNormal(int face) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1],
+                e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1],
+                e2z = vertices[c + 2] - vertices[a + 2];
+        Vector n = Vector.tryOf(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x);
+        return n == null ? null : n.normalize();
+    }
+
+    /**
+     * The normal of the face that contains the point. The face is searched among
+     * the faces whose boxes contain the point (by the BVH) - the intersection
+     * points of the mesh carry their faces, so their normals are found without a
+     * search (see {@link GeoPoint#getNormal()})
+     *
+     * @param point on the mesh
+     * @return the normal of the face of the point
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        Vector[] normal = { null };
+        // a ray of length 0 visits the faces whose boxes contain its head
+        bvh.traverse(new Ray(point, Vector.X), 0, (face, max) -> {
+            Vector n = getFaceNormal(face);
+            if (n == null) // degenerate face
+                return max;
+            // a ray from a unit above the face back towards the point must hit it at 1
+            double t = intersect(face, point.getX() + n.getX(), point.getY() + n.getY(), point.getZ() + n.getZ(),
+                    -n.getX(), -n.getY(), -n.getZ(), 2);
+            if (!isZero(t - 1))
+                return max;
+            normal[0] = n;
+            return -1;
+        });
+        if (normal[0] == null)
+            throw new IllegalArgumentException("The point is not on the mesh");
+        return normal[0];
+    }
+
+    @Override
+    protected Vector getNormal(Point point, int face) {
+        return getFaceNormal(face);
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return bvh.getBoundingBox();
+    }
+
+    /**
+     * return a list of {@link GeoPoint} intersections between the mesh and a ray,
+     * one per intersected face - a point on an edge or a vertex that is shared by
+     * several faces is listed once
+     *
+     * @param ray that may has intersections with the mesh
+     * @param max the maximum distance of the ray
+     * @return list of intersections or null if there are none
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double max) {
+        List<GeoPoint> intersections = new LinkedList<>();
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        bvh.traverse(ray, max, (face, distance) -> {
+            double t = intersect(face, ox, oy, oz, dx, dy, dz, distance);
+            if (t == Double.POSITIVE_INFINITY)
+                return distance;
+            for (GeoPoint gp : intersections)
+                if (isZero(gp.t - t) && shareVertex(gp.face, face)) // the same point of a shared edge
+                    return distance;
+            intersections.add(new GeoPoint(this, ray.getPoint(t), t, face));
+            return distance;
+        });
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    /**
+     * Check whether two faces share a vertex (and so may share an edge)
+     *
+     * @param face1 index of a face
+     * @param face2 index of the other face
+     * @return true if the faces share a vertex
+     */
+    private boolean shareVertex(int face1, int face2) {
+        for (int i = 3 * face1; i < 3 * face1 + 3; ++i)
+            for (int j = 3 * face2; j < 3 * face2 + 3; ++j)
+                if (faces[i] == faces[j])
+                    return true;
+        return false;
+    }
+
+    /**
+     * return the closest intersection between the mesh and a ray, the maximum
+     * distance shrinks to each closer face found
+     *
+     * @param ray that may has intersections with the mesh
+     * @param max the maximum distance of the ray
+     * @return the closest intersection or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        int[] closestFace = { -1 };
+        double[] closestT = { max };
+        bvh.traverse(ray, max, (face, distance) -> {
+            double t = intersect(face, ox, oy, oz, dx, dy, dz, distance);
+            if (t == Double.POSITIVE_INFINITY || closestFace[0] >= 0 && t >= closestT[0])
+                return distance;
+            closestFace[0] = face;
+            closestT[0] = t;
+            return Math.min(t, distance);
+        });
+        if (closestFace[0] < 0)
+            return null;
+        double t = closestT[0];
+        return new GeoPoint(this, ray.getPoint(t), t, closestFace[0]);
+    }
+
+    /**
+     * Intersect a ray with a face by the Moller-Trumbore algorithm (the edges and
+     * the vertices are included)
+     *
+     * @param face index of the face
+     * @return the ray parameter of the intersection, or infinity if the ray
+     *         misses the face in the interval (0, max]
+     */
+    private double intersect(int face, double ox, double oy, double oz, double dx, double dy, double dz,
+            double max) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+
+        // p = dir x e2, the ray is parallel to the face if det is zero
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.POSITIVE_INFINITY;
+        double inv = 1 / det;
+
+        double sx = ox - ax, sy = oy - ay, sz = oz - az;
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (u < 0 || u > 1)
+            return Double.POSITIVE_INFINITY;
+
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (v < 0 || u + v > 1)
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return t <= 0 || alignZero(t - max) > 0 ? Double.POSITIVE_INFINITY : t;
+    }
+}
@@ -3,12 +3,18 @@ package geometries;
 import java.util.List;
 
 import primitives.*;
+import static primitives.Util.*;
 
 /**
  * This class represents a tube in euclidean space, based on radius and axis-ray
  */
 public class Tube extends Geometry {
 
+    /**
+     * empty array of ray parameters (no intersections)
+     */
+    static final double[] NO_PARAMETERS = new double[0];
+
     protected final Ray axisRay;
     protected final double radius;
 
@@ -47,10 +53,72 @@ public class Tube extends Geometry {
      * 
      * @param ray that may has intersection with the tube
      * @param max the maximum distance of the ray
+     * @return list of intersection points or null if there is no intersection
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double max) {
-        return null;
+        double[] t = findParameters(ray, max);
+        return switch (t.length) {
+            case 0 -> null;
+            case 1 -> List.of(new GeoPoint(this, ray.getPoint(t[0]), t[0]));
+            default -> List.of(new GeoPoint(this, ray.getPoint(t[0]), t[0]),
+                    new GeoPoint(this, ray.getPoint(t[1]), t[1]));
+        };
+    }
+
+    /**
+     * This function returns the closest intersection {@link GeoPoint} between a
+     * ray and the tube
+     * 
+     * @param ray that may has intersection with the tube
+     * @param max the maximum distance of the ray
+     * @return the closest intersection point or null if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
+        double[] t = findParameters(ray, max);
+        return t.length == 0 ? null : new GeoPoint(this, ray.getPoint(t[0]), t[0]);
+    }
+
+    /**
+     * Find the ray parameters of the intersections with the tube surface.
+     * The ray P + t*v is projected on the plane orthogonal to the axis (P0, a):
+     * with dP = P - P0, the projected distance from the axis is the radius when
+     * |v - (v*a)a|^2 t^2 + 2(v - (v*a)a)(dP - (dP*a)a) t + |dP - (dP*a)a|^2 - r^2 = 0
+     * (a ray parallel to the axis or tangent to the tube has no intersections)
+     * 
+     * @param ray the intersected ray
+     * @param max the maximum distance of the ray
+     * @return the ray parameters in the interval (0, max], ascending
+     */
+    double[] findParameters(Ray ray, double max) {
+        Vector a = axisRay.getDir();
+        Vector v = ray.getDir();
+        Point p0 = axisRay.getP0();
+        Point p = ray.getP0();
+        double ax = a.getX(), ay = a.getY(), az = a.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double dx = p.getX() - p0.getX(), dy = p.getY() - p0.getY(), dz = p.getZ() - p0.getZ();
+
+        double va = vx * ax + vy * ay + vz * az;
+        double da = dx * ax + dy * ay + dz * az;
+        double qa = 1 - va * va; // the direction is normalized
+        if (isZero(qa)) // parallel to the axis
+            return NO_PARAMETERS;
+        double qb = vx * dx + vy * dy + vz * dz - va * da; // half of the linear coefficient
+        double qc = dx * dx + dy * dy + dz * dz - da * da - radius * radius;
+        double discriminant = qb * qb - qa * qc;
+        if (alignZero(discriminant) <= 0) // no intersections or tangent
+            return NO_PARAMETERS;
+
+        double th = Math.sqrt(discriminant);
+        double t1 = alignZero((-qb - th) / qa);
+        double t2 = alignZero((-qb + th) / qa);
+        if (t2 <= 0 || alignZero(t1 - max) > 0)
+            return NO_PARAMETERS;
+        if (t1 <= 0)
+            return alignZero(t2 - max) > 0 ? NO_PARAMETERS : new double[] { t2 };
+        return alignZero(t2 - max) > 0 ? new double[] { t1 } : new double[] { t1, t2 };
     }
 
     /**
@@ -68,6 +136,16 @@ public class Tube extends Geometry {
         return point.subtract(axisRay.getPoint(t)).normalize();
     }
 
+    /**
+     * A tube is infinite
+     * 
+     * @return null - the tube is unbounded
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return null;
+    }
+
     @Override
     public String toString() {
         return "(" + axisRay.toString() + "," + radius + ")";
@@ -0,0 +1,236 @@
+package geometries;
+
+import primitives.*;
+
+/**
+ * Uniform grid of voxels over axis-aligned boxes of primitives.
+ * Each cell keeps the indices of the primitives whose boxes overlap it, in
+ * flat arrays built in two linear passes (count, then fill), so the grid is
+ * cheap to rebuild. A ray walks the cells front-to-back with the 3D-DDA
+ * algorithm of Amanatides & Woo, and each primitive is visited once per ray
+ * (mailboxing) even if it overlaps several cells
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+final class UniformGrid implements AccelerationStructure {
+
+    /**
+     * target average amount of cells per primitive (Cleary's density)
+     */
+    private static final double DENSITY = 3;
+
+    /**
+     * maximal amount of cells on each axis
+     */
+    private static final int MAX_RESOLUTION = 128;
+
+    private final int count;
+    private final double minX, minY, minZ;
+    private final double maxX, maxY, maxZ;
+    private final int nx, ny, nz;
+    private final double cellX, cellY, cellZ;
+
+    /**
+     * position of the first primitive of each cell in {@link #cellPrimitives}
+     * (one more entry for the end of the last cell)
+     */
+    private final int[] cellStart;
+    private final int[] cellPrimitives;
+
+    /**
+     * Per thread mailbox - the id of the last ray that visited each primitive
+     */
+    private final ThreadLocal<Mailbox> mailboxes;
+
+    /**
+     * Helping class - mailbox of one thread
+     */
+    private static class Mailbox {
+        final int[] lastRay;
+        int ray = 0;
+
+        Mailbox(int count) {
+            lastRay = new int[count];
+        }
+
+        /**
+         * Start a new ray
+         *
+         * @return the id of the new ray
+         */
+        int nextRay() {
+            if (++ray == 0) { // wrap around - forget all the old rays
+                java.util.Arrays.fill(lastRay, 0);
+                ray = 1;
+            }
+            return ray;
+        }
+    }
+
+    /**
+     * Build the grid, the resolution is chosen by the amount of primitives and the
+     * shape of their bounds
+     *
+     * @param boxes bounds of the primitives, 6 numbers per primitive: minX, minY,
+     *              minZ, maxX, maxY, maxZ
+     * @param count amount of primitives
+     */
+    UniformGrid(double[] boxes, int count) {
+        this.count = count;
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+        for (int b = 0; b < 6 * count; b += 6) {
+            x0 = Math.min(x0, boxes[b]);
+            y0 = Math.min(y0, boxes[b + 1]);
+            z0 = Math.min(z0, boxes[b + 2]);
+            x1 = Math.max(x1, boxes[b + 3]);
+            y1 = Math.max(y1, boxes[b + 4]);
+            z1 = Math.max(z1, boxes[b + 5]);
+        }
+        if (count == 0)
+            x0 = y0 = z0 = x1 = y1 = z1 = 0;
+        // pad the bounds so the boundary primitives are strictly inside
+        minX = x0 - BoundingBox.PADDING;
+        minY = y0 - BoundingBox.PADDING;
+        minZ = z0 - BoundingBox.PADDING;
+        maxX = x1 + BoundingBox.PADDING;
+        maxY = y1 + BoundingBox.PADDING;
+        maxZ = z1 + BoundingBox.PADDING;
+
+        // cells per length unit so that there are about DENSITY * count cells,
+        // a flat dimension is measured as a small part of the largest one
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        double flat = Math.max(dx, Math.max(dy, dz)) / MAX_RESOLUTION;
+        double volume = Math.max(dx, flat) * Math.max(dy, flat) * Math.max(dz, flat);
+        double perUnit = Math.cbrt(DENSITY * Math.max(count, 1) / volume);
+        nx = resolution(dx * perUnit);
+        ny = resolution(dy * perUnit);
+        nz = resolution(dz * perUnit);
+        cellX = dx / nx;
+        cellY = dy / ny;
+        cellZ = dz / nz;
+
+        // 1st pass - count the primitives of each cell
+        cellStart = new int[nx * ny * nz + 1];
+        int[] range = new int[6];
+        for (int i = 0; i < count; ++i) {
+            cellRange(boxes, 6 * i, range);
+            for (int z = range[2]; z <= range[5]; ++z)
+                for (int y = range[1]; y <= range[4]; ++y)
+                    for (int x = range[0]; x <= range[3]; ++x)
+                        ++cellStart[cell(x, y, z) + 1];
+        }
+        for (int c = 1; c < cellStart.length; ++c)
+            cellStart[c] += cellStart[c - 1];
+
+        // 2nd pass - fill the primitives of each cell
+        cellPrimitives = new int[cellStart[cellStart.length - 1]];
+        int[] fill = new int[cellStart.length - 1];
+        for (int i = 0; i < count; ++i) {
+            cellRange(boxes, 6 * i, range);
+            for (int z = range[2]; z <= range[5]; ++z)
+                for (int y = range[1]; y <= range[4]; ++y)
+                    for (int x = range[0]; x <= range[3]; ++x) {
+                        int c = cell(x, y, z);
+                        cellPrimitives[cellStart[c] + fill[c]++] = i;
+                    }
+        }
+
+        mailboxes = ThreadLocal.withInitial(() -> new Mailbox(this.count));
+    }
+
+    /**
+     * returns the amount of cells on an axis (between 1 and
+     * {@link #MAX_RESOLUTION})
+     */
+    private static int resolution(double cells) {
+        return (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.round(cells)));
+    }
+
+    /**
+     * Find the range of cells overlapped by the (padded) box at position b
+     *
+     * @param range output - first x, y, z cells and last x, y, z cells (included)
+     */
+    private void cellRange(double[] boxes, int b, int[] range) {
+        double pad = BoundingBox.PADDING;
+        range[0] = clamp((int) ((boxes[b] - pad - minX) / cellX), nx);
+        range[1] = clamp((int) ((boxes[b + 1] - pad - minY) / cellY), ny);
+        range[2] = clamp((int) ((boxes[b + 2] - pad - minZ) / cellZ), nz);
+        range[3] = clamp((int) ((boxes[b + 3] + pad - minX) / cellX), nx);
+        range[4] = clamp((int) ((boxes[b + 4] + pad - minY) / cellY), ny);
+        range[5] = clamp((int) ((boxes[b + 5] + pad - minZ) / cellZ), nz);
+    }
+
+    private static int clamp(int cell, int n) {
+        return cell < 0 ? 0 : cell >= n ? n - 1 : cell;
+    }
+
+    private int cell(int x, int y, int z) {
+        return x + nx * (y + ny * z);
+    }
+
+    @Override
+    public double traverse(Ray ray, double max, Visitor visitor) {
+        if (count == 0)
+            return max;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double t = BoundingBox.entry(minX, minY, minZ, maxX, maxY, maxZ, ox, oy, oz, 1 / dx, 1 / dy, 1 / dz, max);
+        if (t == Double.POSITIVE_INFINITY)
+            return max;
+
+        // the cell of the entry point
+        int x = clamp((int) ((ox + t * dx - minX) / cellX), nx);
+        int y = clamp((int) ((oy + t * dy - minY) / cellY), ny);
+        int z = clamp((int) ((oz + t * dz - minZ) / cellZ), nz);
+
+        // step direction, distance to the next cell boundary and the distance
+        // between the boundaries on each axis
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        int stepZ = dz > 0 ? 1 : -1;
+        double nextX = dx == 0 ? Double.POSITIVE_INFINITY
+                : (minX + (x + (dx > 0 ? 1 : 0)) * cellX - ox) / dx;
+        double nextY = dy == 0 ? Double.POSITIVE_INFINITY
+                : (minY + (y + (dy > 0 ? 1 : 0)) * cellY - oy) / dy;
+        double nextZ = dz == 0 ? Double.POSITIVE_INFINITY
+                : (minZ + (z + (dz > 0 ? 1 : 0)) * cellZ - oz) / dz;
+        double deltaX = dx == 0 ? Double.POSITIVE_INFINITY : cellX / Math.abs(dx);
+        double deltaY = dy == 0 ? Double.POSITIVE_INFINITY : cellY / Math.abs(dy);
+        double deltaZ = dz == 0 ? Double.POSITIVE_INFINITY : cellZ / Math.abs(dz);
+
+        Mailbox mailbox = mailboxes.get();
+        int rayId = mailbox.nextRay();
+        int[] lastRay = mailbox.lastRay;
+        while (true) {
+            int c = cell(x, y, z);
+            for (int i = cellStart[c]; i < cellStart[c + 1]; ++i) {
+                int primitive = cellPrimitives[i];
+                if (lastRay[primitive] != rayId) {
+                    lastRay[primitive] = rayId;
+                    max = visitor.visit(primitive, max);
+                    if (max < 0)
+                        return max;
+                }
+            }
+
+            // step into the next cell, unless it is beyond the maximum distance
+            if (nextX <= nextY && nextX <= nextZ) {
+                if (nextX > max || (x += stepX) < 0 || x >= nx)
+                    return max;
+                nextX += deltaX;
+            } else if (nextY <= nextZ) {
+                if (nextY > max || (y += stepY) < 0 || y >= ny)
+                    return max;
+                nextY += deltaY;
+            } else {
+                if (nextZ > max || (z += stepZ) < 0 || z >= nz)
+                    return max;
+                nextZ += deltaZ;
+            }
+        }
+    }
+}
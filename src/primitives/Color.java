@@ -5,6 +5,10 @@ package primitives;
  * non-negative RGB values. The colors are maintained without upper limit of
  * 255. Some additional operations are added that are useful for manipulating
  * light's colors
+ * The components are validated when a color is constructed from given values;
+ * the results of the operations on valid colors (with valid factors) are not
+ * negative by construction, so they are not validated again. For sums of many
+ * colors see {@link ColorAccumulator}
  * 
  * @author Dan Zilberstein
  */
@@ -13,7 +17,9 @@ public class Color {
      * The internal fields tx`o maintain RGB components as double numbers from 0 to
      * whatever...
      */
-    private final Double3 rgb;
+    final double r;
+    final double g;
+    final double b;
 
     /**
      * Black color = (0,0,0)
@@ -24,7 +30,7 @@ public class Color {
      * Default constructor - to generate Black Color (privately)
      */
     private Color() {
-        rgb = Double3.ZERO;
+        this(0, 0, 0, false);
     }
 
     /**
@@ -36,21 +42,24 @@ public class Color {
      * @param b Blue component
      */
     public Color(double r, double g, double b) {
-        if (r < 0 || g < 0 || b < 0)
-            throw new IllegalArgumentException("Negative color component is illegal");
-        rgb = new Double3(r, g, b);
+        this(r, g, b, true);
     }
 
     /**
-     * Constructor to generate a color according to RGB components Each component in
-     * range 0..255 (for printed white color) or more [for lights]
+     * Constructor to generate a color according to RGB components, the result of
+     * an operation isn't checked
      *
-     * @param rgb triad of Red/Green/Blue components
+     * @param r     Red component
+     * @param g     Green component
+     * @param b     Blue component
+     * @param check true to check that the components are not negative
      */
-    private Color(Double3 rgb) {
-        if (rgb.d1 < 0 || rgb.d2 < 0 || rgb.d3 < 0)
+    Color(double r, double g, double b, boolean check) {
+        if (check && (r < 0 || g < 0 || b < 0))
             throw new IllegalArgumentException("Negative color component is illegal");
-        this.rgb = rgb;
+        this.r = r;
+        this.g = g;
+        this.b = b;
     }
 
     /**
@@ -59,7 +68,7 @@ public class Color {
      * @param other java.awt.Color's source object
      */
     public Color(java.awt.Color other) {
-        rgb = new Double3(other.getRed(), other.getGreen(), other.getBlue());
+        this(other.getRed(), other.getGreen(), other.getBlue(), false);
     }
 
     /**
@@ -69,12 +78,49 @@ public class Color {
      * @return java.awt.Color object based on this Color RGB components
      */
     public java.awt.Color getColor() {
-        int ir = (int) rgb.d1;
-        int ig = (int) rgb.d2;
-        int ib = (int) rgb.d3;
+        int ir = (int) r;
+        int ig = (int) g;
+        int ib = (int) b;
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Getter of the red component
+     *
+     * @return the red component (not limited to 255)
+     */
+    public double getRed() {
+        return r;
+    }
+
+    /**
+     * Getter of the green component
+     *
+     * @return the green component (not limited to 255)
+     */
+    public double getGreen() {
+        return g;
+    }
+
+    /**
+     * Getter of the blue component
+     *
+     * @return the blue component (not limited to 255)
+     */
+    public double getBlue() {
+        return b;
+    }
+
+    /**
+     * Operation of adding this and another color (by component)
+     *
+     * @param color the other color to add
+     * @return new Color object which is a result of the operation
+     */
+    public Color add(Color color) {
+        return new Color(r + color.r, g + color.g, b + color.b, false);
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
@@ -82,15 +128,15 @@ public class Color {
      * @return new Color object which is a result of the operation
      */
     public Color add(Color... colors) {
-        double rr = rgb.d1;
-        double rg = rgb.d2;
-        double rb = rgb.d3;
+        double rr = r;
+        double rg = g;
+        double rb = b;
         for (Color c : colors) {
-            rr += c.rgb.d1;
-            rg += c.rgb.d2;
-            rb += c.rgb.d3;
+            rr += c.r;
+            rg += c.g;
+            rb += c.b;
         }
-        return new Color(rr, rg, rb);
+        return new Color(rr, rg, rb, false);
     }
 
     /**
@@ -102,7 +148,7 @@ public class Color {
     public Color scale(Double3 k) {
         if (k.d1 < 0.0 || k.d2 < 0.0 || k.d3 < 0.0)
             throw new IllegalArgumentException("Can't scale a color by a negative number");
-        return new Color(rgb.product(k));
+        return new Color(r * k.d1, g * k.d2, b * k.d3, false);
     }
 
     /**
@@ -114,7 +160,7 @@ public class Color {
     public Color scale(double k) {
         if (k < 0.0)
             throw new IllegalArgumentException("Can't scale a color by a negative number");
-        return new Color(rgb.scale(k));
+        return new Color(r * k, g * k, b * k, false);
     }
 
     /**
@@ -126,7 +172,7 @@ public class Color {
     public Color reduce(double k) {
         if (k < 1)
             throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-        return new Color(rgb.reduce(k));
+        return new Color(r / k, g / k, b / k, false);
     }
 
     /**
@@ -138,12 +184,12 @@ public class Color {
     public Color reduce(Double3 k) {
         if (k.d1 < 1.0 || k.d2 < 1.0 || k.d3 < 1.0)
             throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-        return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
+        return new Color(r / k.d1, g / k.d2, b / k.d3, false);
     }
 
     @Override
     public String toString() {
-        return "rgb:" + rgb;
+        return "rgb:(" + r + "," + g + "," + b + ")";
     }
 
     @Override
@@ -154,9 +200,9 @@ public class Color {
             return false;
         if (!(obj instanceof Color other))
             return false;
-        if (Math.abs(rgb.d1 - other.rgb.d1) > 1 || //
-            Math.abs(rgb.d2 - other.rgb.d2) > 1 || //
-            Math.abs(rgb.d3 - other.rgb.d3) > 1)
+        if (Math.abs(r - other.r) > 1 || //
+            Math.abs(g - other.g) > 1 || //
+            Math.abs(b - other.b) > 1)
             return false;
         return true;
     }
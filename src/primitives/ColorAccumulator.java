@@ -0,0 +1,76 @@
+package primitives;
+
+/**
+ * A mutable running sum of colors and the amount of the added colors - for
+ * summing the colors of the samples of a pixel or the contributions of the
+ * lights at a point, without a new {@link Color} per addition.<br/>
+ * An accumulator is used by a single thread (usually within a single method).
+ * The added colors are valid (not negative), so only the factors are checked
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class ColorAccumulator {
+    private double r = 0;
+    private double g = 0;
+    private double b = 0;
+    private int count = 0;
+
+    /**
+     * Add a color to the sum
+     *
+     * @param color the color
+     * @return this accumulator
+     */
+    public ColorAccumulator add(Color color) {
+        r += color.r;
+        g += color.g;
+        b += color.b;
+        ++count;
+        return this;
+    }
+
+    /**
+     * Add a color scaled by a factor per rgb to the sum
+     *
+     * @param color the color
+     * @param k     the scale factor per rgb (not negative)
+     * @return this accumulator
+     * @throws IllegalArgumentException if a factor is negative
+     */
+    public ColorAccumulator add(Color color, Double3 k) {
+        if (k.d1 < 0.0 || k.d2 < 0.0 || k.d3 < 0.0)
+            throw new IllegalArgumentException("Can't scale a color by a negative number");
+        r += color.r * k.d1;
+        g += color.g * k.d2;
+        b += color.b * k.d3;
+        ++count;
+        return this;
+    }
+
+    /**
+     * Getter of the amount of the added colors
+     *
+     * @return amount of the colors
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * The sum of the added colors
+     *
+     * @return the sum ({@link Color#BLACK} if none was added)
+     */
+    public Color getSum() {
+        return count == 0 ? Color.BLACK : new Color(r, g, b, false);
+    }
+
+    /**
+     * The average of the added colors
+     *
+     * @return the average ({@link Color#BLACK} if none was added)
+     */
+    public Color getAverage() {
+        return count == 0 ? Color.BLACK : new Color(r / count, g / count, b / count, false);
+    }
+}
@@ -5,10 +5,15 @@ package primitives;
  * x for the x-line
  * y for the y-line
  * z for the z-line
+ * The coordinates are kept in the object itself (not in a {@link Double3}), so
+ * the arithmetic allocates a single object per result - which the JIT may
+ * eliminate altogether when the result doesn't escape.
  */
 public class Point {
 
-    protected final Double3 xyz;
+    final double x;
+    final double y;
+    final double z;
     public final static Point ZERO = new Point(0, 0, 0);
 
     /**
@@ -19,7 +24,9 @@ public class Point {
      * @param z coordinate value
      */
     public Point(double x, double y, double z) {
-        xyz = new Double3(x, y, z);
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
@@ -28,7 +35,7 @@ public class Point {
      * @param xyz coordinates of the point
      */
     public Point(Double3 xyz) {
-        this.xyz = xyz;
+        this(xyz.d1, xyz.d2, xyz.d3);
     }
 
     /**
@@ -37,7 +44,7 @@ public class Point {
      * @return x coordinate value
      */
     public double getX() {
-        return xyz.d1;
+        return x;
     }
 
     /**
@@ -46,7 +53,7 @@ public class Point {
      * @return y coordinate value
      */
     public double getY() {
-        return xyz.d2;
+        return y;
     }
 
     /**
@@ -55,7 +62,7 @@ public class Point {
      * @return z coordinate value
      */
     public double getZ() {
-        return xyz.d3;
+        return z;
     }
 
     /**
@@ -65,7 +72,19 @@ public class Point {
      * @return add result Point
      */
     public Point add(Vector rhs) {
-        return new Point(xyz.add(rhs.xyz));
+        return new Point(x + rhs.x, y + rhs.y, z + rhs.z);
+    }
+
+    /**
+     * Addition with a scaled Vector (this + rhs * scale) - the scaled vector is
+     * not created, so it doesn't fail when the scale is zero
+     * 
+     * @param rhs   the vector
+     * @param scale the scale of the vector
+     * @return add result Point
+     */
+    public Point add(Vector rhs, double scale) {
+        return new Point(x + rhs.x * scale, y + rhs.y * scale, z + rhs.z * scale);
     }
 
     /**
@@ -73,9 +92,20 @@ public class Point {
      * 
      * @param Point right handle side operand for product
      * @return subtract result Vector
+     * @throws IllegalArgumentException if the points are equal
      */
     public Vector subtract(Point rhs) {
-        return new Vector(xyz.subtract(rhs.xyz));
+        return new Vector(x - rhs.x, y - rhs.y, z - rhs.z);
+    }
+
+    /**
+     * perform subtract with Point, without failing on equal points
+     * 
+     * @param rhs right handle side operand for subtract
+     * @return subtract result Vector, or null if the points are equal
+     */
+    public Vector trySubtract(Point rhs) {
+        return Vector.tryOf(x - rhs.x, y - rhs.y, z - rhs.z);
     }
 
     /**
@@ -85,9 +115,9 @@ public class Point {
      * @return distance to another point
      */
     public double distanceSquared(Point rhs) {
-        double dx = xyz.d1 - rhs.xyz.d1;
-        double dy = xyz.d2 - rhs.xyz.d2;
-        double dz = xyz.d3 - rhs.xyz.d3;
+        double dx = x - rhs.x;
+        double dy = y - rhs.y;
+        double dz = z - rhs.z;
         return dx * dx + dy * dy + dz * dz;
     }
 
@@ -103,7 +133,7 @@ public class Point {
 
     @Override
     public String toString() {
-        return "Point [" + xyz.d1 + "," + xyz.d2 + "," + xyz.d3 + "]";
+        return "Point [" + x + "," + y + "," + z + "]";
     }
 
     @Override
@@ -114,7 +144,18 @@ public class Point {
             return false;
         if (!(obj instanceof Point other))
             return false;
-        return xyz.equals(other.xyz);
+        return equalCoordinates(other);
+    }
+
+    /**
+     * Check whether the coordinates of another point are equal to those of this
+     * point (up to the accuracy of {@link Util#isZero(double)})
+     * 
+     * @param other the other point
+     * @return true if the coordinates are equal
+     */
+    boolean equalCoordinates(Point other) {
+        return Util.isZero(x - other.x) && Util.isZero(y - other.y) && Util.isZero(z - other.z);
     }
 
 }
@@ -5,6 +5,8 @@ import geometries.Intersectable.GeoPoint;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * This class represents a Ray based on Point and Vector
@@ -23,7 +25,7 @@ public class Ray {
      */
     public Ray(Point p0, Vector dir) {
         this.p0 = p0;
-        this.dir = dir.normalize();
+        this.dir = unit(dir);
     }
 
     /**
@@ -34,8 +36,19 @@ public class Ray {
      * @param n         vector of the normal
      */
     public Ray(Point p0, Vector direction, Vector n) {
-        this.p0 = p0.add(n.scale(n.dotProduct(direction) > 0 ? DELTA : -DELTA));
-        this.dir = direction.normalize();
+        this.p0 = p0.add(n, n.dotProduct(direction) > 0 ? DELTA : -DELTA);
+        this.dir = unit(direction);
+    }
+
+    /**
+     * Normalize a direction unless it is already normalized (as the directions
+     * of the secondary rays are), so no vector is allocated for it
+     * 
+     * @param dir the direction
+     * @return the normalized direction
+     */
+    private static Vector unit(Vector dir) {
+        return isZero(dir.lengthSquared() - 1) ? dir : dir.normalize();
     }
 
     /**
@@ -46,11 +59,7 @@ public class Ray {
      * @return Point on the Ray by a the given distance
      */
     public Point getPoint(double t) {
-        try {
-            return isZero(t) ? p0 : p0.add(dir.scale(t));
-        } catch (IllegalArgumentException e) {
-            return p0;
-        }
+        return isZero(t) ? p0 : p0.add(dir, t);
     }
 
     /**
@@ -84,7 +93,8 @@ public class Ray {
 
     /**
      * this function return the close {@link GeoPoint} point to the beginning of the
-     * ray
+     * ray (the known ray parameters of the points are used as their distances, so
+     * the points must be intersections of this ray)
      * 
      * @param list of GeoPoint points
      * @return the closest GeoPoint point to the beginning of the ray
@@ -93,7 +103,8 @@ public class Ray {
         GeoPoint closestGeoPoint = null;
         double minDistance = Double.POSITIVE_INFINITY;
         for (GeoPoint item : points) {
-            double distance = item.point.distance(p0);
+            // the ray parameter of an intersection point is its distance
+            double distance = Double.isNaN(item.t) ? item.point.distanceSquared(p0) : item.t * item.t;
             if (distance < minDistance) {
                 minDistance = distance;
                 closestGeoPoint = item;
@@ -121,10 +132,11 @@ public class Ray {
         if (radius == 0)
             return rays;
         Point focalPoint = getPoint(dist);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         for (int i = 1; i < numRays; ++i) {
-            double cosTheta = -1 + (Math.random() * 2); // between 0 to pie
+            double cosTheta = -1 + (random.nextDouble() * 2); // between 0 to pie
             double sinTheta = Math.sqrt(1 - cosTheta * cosTheta); // by Pitagoras theorem
-            double d = -radius + (Math.random() * (2 * radius)); // In a circle or in diameter
+            double d = -radius + (random.nextDouble() * (2 * radius)); // In a circle or in diameter
             // Move from polar to Cartesian system:
             double x_move = d * cosTheta;
             double y_move = d * sinTheta;
@@ -141,6 +153,47 @@ public class Ray {
         return rays;
     }
 
+    /**
+     * auxiliary function to scatter points within a circular surface by a
+     * sampler. The samples of the unit square are mapped to the circle by the
+     * concentric mapping, which keeps their even spread.
+     * returns a list of rays which related to the surface.
+     *
+     * @param center  - center point of the circular surface.
+     * @param vUp     - upper vector of circular surface.
+     * @param vRight  - right vector of circular surface.
+     * @param radius  - radius of circular surface. (mostly aperture)
+     * @param numRays - number of rays we create in the circular surface
+     *                (including the original ray).
+     * @param dist    - distance between the view plane and the focal plane
+     * @param sampler - the sampler of the points
+     * @param random  - the source of the randomness of the sampler
+     * @return list of rays from the area of the aperture to the focal point
+     */
+    public List<Ray> raysInCircle(Point center, Vector vUp, Vector vRight, double radius, int numRays,
+            double dist, Sampler sampler, RandomGenerator random) {
+        List<Ray> rays = new LinkedList<>();
+        rays.add(this); // including the original ray
+        if (radius == 0 || numRays <= 1)
+            return rays;
+        Point focalPoint = getPoint(dist);
+        double[] samples = Sampler.toDisk(sampler.generate(numRays - 1, random));
+        for (int i = 0; i < samples.length; i += 2) {
+            double x_move = radius * samples[i];
+            double y_move = radius * samples[i + 1];
+            // define a new starting point for the new ray
+            Point newP0 = center;
+            if (!isZero(x_move)) {
+                newP0 = newP0.add(vRight.scale(x_move));
+            }
+            if (!isZero(y_move)) {
+                newP0 = newP0.add(vUp.scale(y_move));
+            }
+            rays.add(new Ray(newP0, (focalPoint.subtract(newP0))));
+        }
+        return rays;
+    }
+
     /**
      * this function return a beam of rays in the pixel by DOF
      *
@@ -0,0 +1,270 @@
+package primitives;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sampler generates sets of sample points in the unit square [0,1)x[0,1), to
+ * be mapped on a pixel (anti-aliasing), on an aperture (depth of field) etc.
+ * <br/>
+ * Unlike white noise ({@link #RANDOM}), the low-discrepancy and stratified
+ * samplers cover the square evenly, so fewer samples reach the same noise
+ * level. Each set is randomized (shifted, scrambled or jittered) so adjacent
+ * pixels don't repeat the same pattern.<br/>
+ * The samplers keep no state: the randomness is drawn from a generator that is
+ * given by the caller, or from the {@link ThreadLocalRandom} of the calling
+ * thread - so the threads of a rendering never contend on a shared seed as they
+ * do with {@link Math#random()}
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public enum Sampler {
+    /**
+     * Independent uniform samples (white noise)
+     */
+    RANDOM {
+        @Override
+        void fill(double[] samples, int count, RandomGenerator random, boolean independent) {
+            for (int i = 0; i < 2 * count; ++i)
+                samples[i] = random.nextDouble();
+        }
+    },
+    /**
+     * A sample jittered inside each cell of a grid of about sqrt(count) x
+     * sqrt(count) cells
+     */
+    STRATIFIED {
+        @Override
+        void fill(double[] samples, int count, RandomGenerator random, boolean independent) {
+            int columns = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+            int rows = (count + columns - 1) / columns;
+            for (int i = 0; i < count; ++i) {
+                samples[2 * i] = (i % columns + random.nextDouble()) / columns;
+                samples[2 * i + 1] = (i / columns + random.nextDouble()) / rows;
+            }
+            if (independent) // the order of the cells is random
+                Sampler.shuffle(samples, count, random);
+        }
+    },
+    /**
+     * The Halton sequence in the bases 2 and 3, shifted by a random offset
+     * (Cranley-Patterson rotation)
+     */
+    HALTON {
+        @Override
+        void fill(double[] samples, int count, RandomGenerator random, boolean independent) {
+            double shiftX = random.nextDouble(), shiftY = random.nextDouble();
+            IntUnaryOperator index = independent ? scrambledIndex(random) : IntUnaryOperator.identity();
+            for (int i = 0; i < count; ++i) {
+                // the radical inverse in the base 3 is of the index as a positive int
+                int n = index.applyAsInt(i) & Integer.MAX_VALUE;
+                samples[2 * i] = wrap(radicalInverse2(n) + shiftX);
+                samples[2 * i + 1] = wrap(radicalInverse3(n) + shiftY);
+            }
+        }
+    },
+    /**
+     * The first two dimensions of the Sobol sequence with random digit
+     * scrambling (a (0,2)-net when the amount of the samples is a power of 2)
+     */
+    SOBOL {
+        @Override
+        void fill(double[] samples, int count, RandomGenerator random, boolean independent) {
+            int scrambleX = random.nextInt(), scrambleY = random.nextInt();
+            IntUnaryOperator index = independent ? scrambledIndex(random) : IntUnaryOperator.identity();
+            for (int i = 0; i < count; ++i) {
+                int n = index.applyAsInt(i);
+                samples[2 * i] = toUnit(Integer.reverse(n) ^ scrambleX);
+                int y = 0;
+                for (int v = 1 << 31; n != 0; n >>>= 1, v ^= v >>> 1)
+                    if ((n & 1) != 0)
+                        y ^= v;
+                samples[2 * i + 1] = toUnit(y ^ scrambleY);
+            }
+        }
+    };
+
+    /**
+     * Fill an array by a set of samples
+     *
+     * @param samples     the array, at least 2 * count long
+     * @param count       amount of the samples
+     * @param random      the source of the randomness
+     * @param independent whether the order of the samples must be independent of
+     *                    the order of the samples of another set (see
+     *                    {@link #generateIndependent(int, RandomGenerator)})
+     */
+    abstract void fill(double[] samples, int count, RandomGenerator random, boolean independent);
+
+    /**
+     * Generate a set of samples by the random generator of the calling thread
+     *
+     * @param count amount of the samples
+     * @return the coordinates of the samples: x0, y0, x1, y1...
+     */
+    public double[] generate(int count) {
+        return generate(count, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generate a set of samples
+     *
+     * @param count  amount of the samples
+     * @param random the source of the randomness (it is not shared between
+     *               threads)
+     * @return the coordinates of the samples: x0, y0, x1, y1...
+     */
+    public double[] generate(int count, RandomGenerator random) {
+        double[] samples = new double[2 * count];
+        fill(samples, count, random, false);
+        return samples;
+    }
+
+    /**
+     * Generate a set of samples whose i-th sample is independent of the i-th
+     * sample of a set of {@link #generate(int, RandomGenerator)} - for samples of
+     * another two dimensions that are paired by their index with the samples of
+     * that set (e.g. the points on the aperture that are paired with the points
+     * on the pixel). Two sets of the same sequence in the same order are
+     * correlated: a ray through the left of the pixel would always pass through
+     * the left of the aperture.<br/>
+     * The stratified cells are shuffled (see {@link #shuffle(double[], RandomGenerator)});
+     * the indices of the sequences are scrambled by a permutation that maps each
+     * aligned block of 2^k indices onto an aligned block, so every prefix of 2^k
+     * samples is spread as the prefix of an ordinary set (for sets that are taken
+     * by prefixes)
+     *
+     * @param count  amount of the samples
+     * @param random the source of the randomness (it is not shared between
+     *               threads)
+     * @return the coordinates of the samples: x0, y0, x1, y1...
+     */
+    public double[] generateIndependent(int count, RandomGenerator random) {
+        double[] samples = new double[2 * count];
+        fill(samples, count, random, true);
+        return samples;
+    }
+
+    /**
+     * The sampler for sets whose samples are taken progressively, as long as
+     * they are needed (e.g. by the adaptive sampling) - every prefix of such a
+     * set must be spread over the whole square. The stratified sampler fills
+     * its cells row by row, so a prefix of its set is a strip of the square; it
+     * is replaced by {@link #SOBOL}, whose every prefix of 2^k samples is
+     * stratified. The prefixes of the other samplers are spread as their whole
+     * sets.
+     *
+     * @return the sampler for progressive sets
+     */
+    public Sampler progressive() {
+        return this == STRATIFIED ? SOBOL : this;
+    }
+
+    /**
+     * Shuffle a set of samples (in place) - for pairing them by their index with
+     * the samples of another set, independently of the order of both sets (e.g.
+     * the points on the aperture with the points on the pixel). The set itself is
+     * not changed, unlike a set of
+     * {@link #generateIndependent(int, RandomGenerator)}, but its prefixes are no
+     * longer spread
+     *
+     * @param samples the coordinates of the samples: x0, y0, x1, y1...
+     * @param random  the source of the randomness
+     * @return the array of the samples
+     */
+    public static double[] shuffle(double[] samples, RandomGenerator random) {
+        shuffle(samples, samples.length / 2, random);
+        return samples;
+    }
+
+    /**
+     * Map samples of the unit square to the unit circle (in place) by the
+     * concentric mapping, which keeps their even spread
+     *
+     * @param samples the coordinates of the samples: x0, y0, x1, y1...
+     * @return the array of the samples, the coordinates in the circle around
+     *         (0,0) of radius 1
+     */
+    public static double[] toDisk(double[] samples) {
+        for (int i = 0; i < samples.length; i += 2) {
+            // the square [-1,1]x[-1,1] is mapped by rings of squares to rings of circles
+            double a = 2 * samples[i] - 1, b = 2 * samples[i + 1] - 1;
+            double r, phi;
+            if (Math.abs(a) > Math.abs(b)) {
+                r = a;
+                phi = Math.PI / 4 * (b / a);
+            } else {
+                r = b;
+                phi = b == 0 ? 0 : Math.PI / 2 - Math.PI / 4 * (a / b);
+            }
+            samples[i] = r * Math.cos(phi);
+            samples[i + 1] = r * Math.sin(phi);
+        }
+        return samples;
+    }
+
+    /**
+     * shuffle the first samples of an array (by Fisher-Yates)
+     */
+    private static void shuffle(double[] samples, int count, RandomGenerator random) {
+        for (int i = count - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            double x = samples[2 * i], y = samples[2 * i + 1];
+            samples[2 * i] = samples[2 * j];
+            samples[2 * i + 1] = samples[2 * j + 1];
+            samples[2 * j] = x;
+            samples[2 * j + 1] = y;
+        }
+    }
+
+    /**
+     * A random permutation of the indices of a sequence, which maps each aligned
+     * block of 2^k indices onto an aligned block: each bit of an index is flipped
+     * by a hash of the higher bits (by the hash of Laine and Karras on the
+     * reversed bits, where a bit depends only on the lower bits)
+     */
+    private static IntUnaryOperator scrambledIndex(RandomGenerator random) {
+        int seed = random.nextInt();
+        return i -> {
+            int v = Integer.reverse(i);
+            v ^= v * 0x3d20adea;
+            v += seed;
+            v *= (seed >>> 16) | 1;
+            v ^= v * 0x05526c56;
+            v ^= v * 0x53a22864;
+            return Integer.reverse(v);
+        };
+    }
+
+    /**
+     * reflect the binary digits of an index about the binary point
+     */
+    private static double radicalInverse2(int i) {
+        return toUnit(Integer.reverse(i));
+    }
+
+    /**
+     * reflect the ternary digits of an index about the ternary point
+     */
+    private static double radicalInverse3(int i) {
+        double result = 0, digit = 1d / 3;
+        for (; i > 0; i /= 3, digit /= 3)
+            result += (i % 3) * digit;
+        return result;
+    }
+
+    /**
+     * the fraction of the 32 bits of an integer (unsigned) in [0,1)
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xFFFFFFFFL) * 0x1p-32;
+    }
+
+    /**
+     * wrap a number in [0,2) around into [0,1)
+     */
+    private static double wrap(double value) {
+        return value >= 1 ? value - 1 : value;
+    }
+}
@@ -3,6 +3,10 @@ package primitives;
 /**
  * This class represents Vector in euclidean space with three Point parameters
  * (x, y, z)
+ * A vector is never zero - the operations that may result in the zero vector
+ * throw an exception, and their try... variants (for the hot paths, where the
+ * zero vector is a legal case, e.g. a ray that starts at the center of a
+ * sphere) return null instead.
  */
 public class Vector extends Point {
     /**
@@ -27,10 +31,7 @@ public class Vector extends Point {
      * @param xyz coordinates of the vector
      */
     public Vector(Double3 xyz) {
-        super(xyz);
-        if (this.xyz.equals(Double3.ZERO)) {
-            throw new IllegalArgumentException("Vector cannot be zero");
-        }
+        this(xyz.d1, xyz.d2, xyz.d3);
     }
 
     /**
@@ -41,7 +42,30 @@ public class Vector extends Point {
      * @param z z coordinate
      */
     public Vector(double x, double y, double z) {
-        this(new Double3(x, y, z));
+        super(x, y, z);
+        if (isZero(x, y, z)) {
+            throw new IllegalArgumentException("Vector cannot be zero");
+        }
+    }
+
+    /**
+     * Constructs a new vector with three coordinates (x, y, z), without failing
+     * on the zero vector
+     * 
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     * @return the vector, or null if it is the zero vector
+     */
+    public static Vector tryOf(double x, double y, double z) {
+        return isZero(x, y, z) ? null : new Vector(x, y, z);
+    }
+
+    /**
+     * Check whether coordinates are of the zero vector
+     */
+    private static boolean isZero(double x, double y, double z) {
+        return Util.isZero(x) && Util.isZero(y) && Util.isZero(z);
     }
 
     @Override
@@ -58,7 +82,7 @@ public class Vector extends Point {
         if (!(obj instanceof Vector))
             return false;
         Vector other = (Vector) obj;
-        return xyz.equals(other.xyz);
+        return equalCoordinates(other);
     }
 
     /**
@@ -68,7 +92,30 @@ public class Vector extends Point {
      * @return result vector
      */
     public Vector add(Vector rhs) {
-        return new Vector(xyz.add(rhs.xyz));
+        return new Vector(x + rhs.x, y + rhs.y, z + rhs.z);
+    }
+
+    /**
+     * calculate addition with another Vector, without failing on the zero vector
+     * 
+     * @param rhs the other vector
+     * @return result vector, or null if it is the zero vector
+     */
+    public Vector tryAdd(Vector rhs) {
+        return tryOf(x + rhs.x, y + rhs.y, z + rhs.z);
+    }
+
+    /**
+     * calculate addition with a scaled Vector (this + rhs * scale) - the scaled
+     * vector is not created, so the scale may be zero
+     * 
+     * @param rhs   the other vector
+     * @param scale the scale of the other vector
+     * @return result vector
+     */
+    @Override
+    public Vector add(Vector rhs, double scale) {
+        return new Vector(x + rhs.x * scale, y + rhs.y * scale, z + rhs.z * scale);
     }
 
     /**
@@ -78,7 +125,17 @@ public class Vector extends Point {
      * @return scale multiplied vector
      */
     public Vector scale(double rhs) {
-        return new Vector(xyz.scale(rhs));
+        return new Vector(x * rhs, y * rhs, z * rhs);
+    }
+
+    /**
+     * multiply vector by a scale, without failing on a zero scale
+     * 
+     * @param rhs the scale
+     * @return scale multiplied vector, or null if it is the zero vector
+     */
+    public Vector tryScale(double rhs) {
+        return tryOf(x * rhs, y * rhs, z * rhs);
     }
 
     /**
@@ -88,11 +145,24 @@ public class Vector extends Point {
      * @return cross product result vector
      */
     public Vector crossProduct(Vector rhs) {
-        Double3 temp = new Double3(
-                (xyz.d2 * rhs.xyz.d3) - (xyz.d3 * rhs.xyz.d2),
-                (xyz.d3 * rhs.xyz.d1) - (xyz.d1 * rhs.xyz.d3),
-                (xyz.d1 * rhs.xyz.d2) - (xyz.d2 * rhs.xyz.d1));
-        return new Vector(temp);
+        return new Vector(
+                (y * rhs.z) - (z * rhs.y),
+                (z * rhs.x) - (x * rhs.z),
+                (x * rhs.y) - (y * rhs.x));
+    }
+
+    /**
+     * Does Cross-producing to the vector by another Vector, without failing on
+     * parallel vectors
+     * 
+     * @param rhs the other vector
+     * @return cross product result vector, or null if the vectors are parallel
+     */
+    public Vector tryCrossProduct(Vector rhs) {
+        return tryOf(
+                (y * rhs.z) - (z * rhs.y),
+                (z * rhs.x) - (x * rhs.z),
+                (x * rhs.y) - (y * rhs.x));
     }
 
     /**
@@ -129,7 +199,7 @@ public class Vector extends Point {
      * @return dot-product result Vector
      */
     public double dotProduct(Vector rhs) {
-        return this.xyz.d1 * rhs.xyz.d1 + this.xyz.d2 * rhs.xyz.d2 + this.xyz.d3 * rhs.xyz.d3;
+        return x * rhs.x + y * rhs.y + z * rhs.z;
 
     }
 
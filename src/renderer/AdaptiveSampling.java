@@ -0,0 +1,95 @@
+package renderer;
+
+import static primitives.Util.*;
+
+import java.util.random.RandomGenerator;
+
+import primitives.*;
+
+/**
+ * The variance-driven adaptive sampling of the pixels (see
+ * {@link Camera#setAdaptiveSampling(int, int, double)}).
+ * The variance of each component is estimated on the fly (by Welford's
+ * algorithm) from the colors limited to 255, as they are written.
+ * It keeps no state of its own, so it is shared by the threads of the rendering
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+class AdaptiveSampling {
+    private final RenderContext context;
+    private final boolean activateAA;
+    private final int minSamples;
+    private final int maxSamples;
+    private final double noiseThreshold;
+
+    /**
+     * Constructor of the adaptive sampling of the pixels of a rendering
+     *
+     * @param context        the context of the rendering
+     * @param activateAA     true for spreading the rays on the pixel
+     * @param minSamples     the initial amount of rays of a pixel
+     * @param maxSamples     the maximum amount of rays of a pixel
+     * @param noiseThreshold the noise that is acceptable
+     */
+    AdaptiveSampling(RenderContext context, boolean activateAA, int minSamples, int maxSamples,
+            double noiseThreshold) {
+        this.context = context;
+        this.activateAA = activateAA;
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+        this.noiseThreshold = noiseThreshold;
+    }
+
+    /**
+     * Cast rays from the camera in order to color a pixel
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     */
+    void castPixel(int col, int row) {
+        double rx = context.rx;
+        double ry = context.ry;
+        double apertureRadius = context.apertureRadius;
+        boolean lens = !isZero(apertureRadius);
+
+        // a single ray if nothing varies between the rays
+        int max = activateAA || lens ? maxSamples : 1;
+        RandomGenerator random = context.pixelRandom(col, row);
+        // the rays are taken by prefixes of the sets, so they must be spread in each
+        // prefix and not only in the whole set
+        Sampler prefixSampler = context.sampler.progressive();
+        double[] pixelSamples = activateAA ? prefixSampler.generate(max, random) : null;
+        double[] lensSamples = lens ? Sampler.toDisk(prefixSampler.generateIndependent(max, random)) : null;
+
+        double left = context.left(col); // the left up corner of the pixel
+        double top = context.top(row);
+
+        ColorAccumulator sum = new ColorAccumulator();
+        double[] mean = new double[3], m2 = new double[3], components = new double[3];
+        int n = 0;
+        while (n < max) {
+            double right = left + (pixelSamples == null ? 0.5 : pixelSamples[2 * n]) * rx;
+            double up = top - (pixelSamples == null ? 0.5 : pixelSamples[2 * n + 1]) * ry;
+            Color color = context.tracer.traceRay(lens
+                    ? context.sampleRay(right, up, apertureRadius * lensSamples[2 * n],
+                            apertureRadius * lensSamples[2 * n + 1])
+                    : context.sampleRay(right, up, 0, 0));
+            sum.add(color);
+            ++n;
+            components[0] = Math.min(color.getRed(), 255);
+            components[1] = Math.min(color.getGreen(), 255);
+            components[2] = Math.min(color.getBlue(), 255);
+            double noise = 0; // the highest variance of the mean of a component
+            for (int c = 0; c < 3; ++c) {
+                double delta = components[c] - mean[c];
+                mean[c] += delta / n;
+                m2[c] += delta * (components[c] - mean[c]);
+                if (n > 1)
+                    noise = Math.max(noise, m2[c] / (n - 1) / n);
+            }
+            if (n >= minSamples && noise <= noiseThreshold * noiseThreshold)
+                break;
+        }
+        context.imageWriter.writePixel(col, row, sum.getAverage());
+    }
+}
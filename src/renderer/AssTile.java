@@ -0,0 +1,268 @@
+package renderer;
+
+import static primitives.Util.*;
+
+import java.util.HashMap;
+import java.util.random.RandomGenerator;
+
+import primitives.*;
+
+/**
+ * The samples of the adaptive super sampling (ASS) of a tile.
+ * The samples are the points of a lattice that divides each pixel into
+ * 2^(recLevel-1) x 2^(recLevel-1) cells, addressed by integer coordinates
+ * (pixel column * cells + cell column, pixel row * cells + cell row). The
+ * color of each point is traced once and kept in a dense array of the
+ * lattice of the tile, so the corners and the edges that a pixel shares
+ * with its neighbours in the tile are not traced again.
+ * With DOF, the ray of each point of the lattice goes through a point of the
+ * aperture of its own, so the blurred regions are subdivided by their noise.
+ * The points of the aperture of the lattice points of a pixel (a point belongs
+ * to the pixel of its cell) are sets of numOfRays samples of the sampler of
+ * the camera, taken by the points in the order of their tracing - from the
+ * corners of the pixel to the finer cells (see {@link PixelLens}).
+ * With the DOF by the circle of confusion (see
+ * {@link Camera#setAdaptiveDepthOfField(boolean)}), the points of a pixel in
+ * focus or in the background go through the center of the aperture, a blurred
+ * pixel is subdivided only until it has about the amount of its DOF rays, and
+ * its primary ray and probes (see {@link LensProbes}) are samples of its color
+ * too.
+ * An instance is used by a single thread
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+class AssTile {
+    /**
+     * the limit of the size of the dense array of a tile, above it (very deep
+     * recursion levels) the colors are kept in a map
+     */
+    private static final int MAX_DENSE_SIZE = 1 << 22;
+
+    private final RenderContext context;
+    private final int cells; // the amount of the cells of the side of a pixel
+    private final int x0; // the lattice coordinates of the first point of the tile
+    private final int y0;
+    private final int stride; // the amount of the lattice points in a row of the tile
+    private final Color[] colors;
+    private final HashMap<Long, Color> sparse;
+
+    private final double centerX; // the lattice coordinates of the center
+    private final double centerY;
+    private final double cellWidth;
+    private final double cellHeight;
+
+    private final int col0;
+    private final int row0;
+    private final int columns; // the amount of the pixels in a row of the tile
+    private final int rows;
+    private final PixelLens[] lenses; // of the pixels of the tile, null without DOF
+    private int minSize = 1; // the size of the smallest square of the current pixel
+    private int points; // the amount of the lattice points of the current pixel
+
+    /**
+     * Constructor of the lattice of a tile
+     *
+     * @param context  the context of the rendering
+     * @param recLevel the recursion level of the ASS
+     * @param col0     the first column of the tile
+     * @param row0     the first row of the tile
+     * @param colEnd   the column after the last one of the tile
+     * @param rowEnd   the row after the last one of the tile
+     */
+    AssTile(RenderContext context, int recLevel, int col0, int row0, int colEnd, int rowEnd) {
+        this.context = context;
+        cells = 1 << Math.max(0, recLevel - 1);
+        x0 = col0 * cells;
+        y0 = row0 * cells;
+        stride = (colEnd - col0) * cells + 1;
+        long size = (long) stride * ((rowEnd - row0) * cells + 1);
+        colors = size <= MAX_DENSE_SIZE ? new Color[(int) size] : null;
+        sparse = colors == null ? new HashMap<>() : null;
+
+        centerX = context.nX * cells / 2d;
+        centerY = context.nY * cells / 2d;
+        cellWidth = context.rx / cells;
+        cellHeight = context.ry / cells;
+
+        this.col0 = col0;
+        this.row0 = row0;
+        columns = colEnd - col0;
+        rows = rowEnd - row0;
+        lenses = isZero(context.apertureRadius) ? null : new PixelLens[columns * rows];
+    }
+
+    /**
+     * This function is calculating color of a pixel by using ASS.
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     * @return color of the pixel
+     */
+    Color pixelColor(int col, int row) {
+        int x = col * cells, y = row * cells;
+        LensProbes pixelProbes = lenses == null ? null : lens(col, row).probes;
+        int count = pixelProbes == null ? 1 : pixelProbes.count;
+        // a blurred pixel is subdivided until it has about the amount of its DOF rays
+        int levels = 0;
+        while (count > 1 && (1 << levels) < cells && ((1 << levels) + 1) * ((1 << levels) + 1) < count)
+            ++levels;
+        minSize = count > 1 ? cells >> levels : 1;
+        points = 4;
+        Color color = pixelColor(x, y, cells, color(x, y), color(x, y + cells), color(x + cells, y + cells),
+                color(x + cells, y));
+        if (count == 1)
+            return color;
+        // the lattice and the primary ray are the samples of the inner circle of the
+        // aperture, and the probes of its outer ring
+        ColorAccumulator ring = new ColorAccumulator();
+        for (int k = 0; k < pixelProbes.rays.length; ++k)
+            ring.add(pixelProbes.trace(k));
+        color = color.scale(points).add(context.tracer.traceHit(pixelProbes.hit, pixelProbes.centerRay))
+                .reduce(points + 1);
+        return ring.getAverage().scale(pixelProbes.weight).add(color.scale(1 - pixelProbes.weight));
+    }
+
+    /**
+     * The aperture samples of a pixel of the tile, created once
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     * @return the aperture samples of the pixel
+     */
+    private PixelLens lens(int col, int row) {
+        int index = (row - row0) * columns + (col - col0);
+        PixelLens lens = lenses[index];
+        if (lens == null)
+            lenses[index] = lens = new PixelLens(col, row);
+        return lens;
+    }
+
+    /**
+     * Helping function of {@link #pixelColor(int, int)}, calculating the color of
+     * a square of the lattice with recursion: if the colors of the corners
+     * differ, the square is divided into 4 squares until a single cell is left.
+     *
+     * @param x              the lattice column of the left up corner
+     * @param y              the lattice row of the left up corner
+     * @param size           the size of the side of the square (in cells)
+     * @param leftUpColor    - the color of the left up point
+     * @param leftDownColor  - the color of the left down point
+     * @param rightDownColor - the color of the right down point
+     * @param rightUpColor   - the color of the right up point
+     * @return the color of the square
+     */
+    private Color pixelColor(int x, int y, int size, Color leftUpColor, Color leftDownColor, Color rightDownColor,
+            Color rightUpColor) {
+        if (size <= minSize)
+            return rightDownColor.add(leftUpColor).add(rightUpColor).add(leftDownColor).reduce(4);
+        if (rightUpColor.equals(leftUpColor) && rightUpColor.equals(leftDownColor)
+                && rightUpColor.equals(rightDownColor))
+            return rightUpColor;
+
+        int half = size / 2;
+        points += 5;
+        Color upColor = color(x + half, y);
+        Color leftColor = color(x, y + half);
+        Color centerColor = color(x + half, y + half);
+        Color rightColor = color(x + size, y + half);
+        Color downColor = color(x + half, y + size);
+
+        leftUpColor = pixelColor(x, y, half, leftUpColor, leftColor, centerColor, upColor);
+        rightUpColor = pixelColor(x + half, y, half, upColor, centerColor, rightColor, rightUpColor);
+        leftDownColor = pixelColor(x, y + half, half, leftColor, leftDownColor, downColor, centerColor);
+        rightDownColor = pixelColor(x + half, y + half, half, centerColor, downColor, rightDownColor, rightColor);
+        return rightDownColor.add(leftUpColor).add(rightUpColor).add(leftDownColor).reduce(4);
+    }
+
+    /**
+     * Helping function, return the color of a point of the lattice. If the
+     * point's color was not calculated yet, trace a ray through it and keep the
+     * color.
+     *
+     * @param x the lattice column of the point
+     * @param y the lattice row of the point
+     * @return the color of the point
+     */
+    private Color color(int x, int y) {
+        if (colors == null)
+            return sparse.computeIfAbsent((long) y << 32 | x, key -> trace(x, y));
+        int index = (y - y0) * stride + (x - x0);
+        Color color = colors[index];
+        if (color == null)
+            colors[index] = color = trace(x, y);
+        return color;
+    }
+
+    /**
+     * Trace a ray from the camera through a point of the lattice
+     *
+     * @param x the lattice column of the point
+     * @param y the lattice row of the point
+     * @return the color of the ray
+     */
+    private Color trace(int x, int y) {
+        double right = (x - centerX) * cellWidth;
+        double up = (centerY - y) * cellHeight;
+        if (lenses == null)
+            return context.tracer.traceRay(context.sampleRay(right, up, 0, 0));
+        // with the DOF by the CoC a point is in focus or inside the ring of the probes
+        // by its pixel (a point on the edge of the tile belongs to the last pixel of
+        // the tile)
+        PixelLens lens = lens(Math.min(x / cells, col0 + columns - 1), Math.min(y / cells, row0 + rows - 1));
+        double radius = context.apertureRadius;
+        if (lens.probes != null) {
+            if (lens.probes.count == 1)
+                return context.tracer.traceRay(context.sampleRay(right, up, 0, 0));
+            radius *= Math.sqrt(1 - lens.probes.weight);
+        }
+        // with DOF each point of the lattice takes a point of the aperture of its own
+        int k = lens.next();
+        return context.tracer
+                .traceRay(context.sampleRay(right, up, radius * lens.samples[2 * k], radius * lens.samples[2 * k + 1]));
+    }
+
+    /**
+     * The aperture samples of the lattice points of a pixel of the tile, drawn
+     * from the random stream of the pixel: the probes of its blur (with the DOF
+     * by the CoC) and then sets of numOfRays samples (or of the amount of the DOF
+     * rays of the pixel by the CoC) that the points take in the order of their
+     * tracing. The points are traced from the coarse squares to the fine ones, so
+     * each prefix of a set must be spread (see {@link Sampler#progressive()})
+     */
+    private class PixelLens {
+        private final RandomGenerator random;
+        private final LensProbes probes; // null without the DOF by the CoC
+        private final int setSize;
+        private double[] samples = null; // the current set, in the unit circle
+        private int next = 0; // the index of the next sample of the set
+
+        /**
+         * Constructor of the aperture samples of a pixel
+         *
+         * @param col pixel's column number (pixel index in row)
+         * @param row pixel's row number (pixel index in column)
+         */
+        PixelLens(int col, int row) {
+            random = context.pixelRandom(col, row);
+            probes = context.adaptiveDof
+                    ? LensProbes.probePixel(context, col, row, context.pixelRay(col, row), context.apertureRadius,
+                            random)
+                    : null;
+            setSize = probes == null ? context.numOfRays : probes.count;
+        }
+
+        /**
+         * Take the next sample of the aperture, a new set is drawn after the current
+         * one is used up
+         *
+         * @return the index of the sample in {@link #samples}
+         */
+        int next() {
+            if (samples == null || next == setSize) {
+                samples = Sampler.toDisk(context.sampler.progressive().generateIndependent(setSize, random));
+                next = 0;
+            }
+            return next++;
+        }
+    }
+}
@@ -4,10 +4,11 @@ import primitives.*;
 import static primitives.Util.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
 
 /**
  * Camera class for rendering a scene with a given camera and image size
@@ -32,6 +33,9 @@ public class Camera {
     private int recLevelForASS = 4; // recursion level for super sampling
 
     private int threadsCount = 0;
+    private int tileSize = 16; // the size of the side of a rendering tile (multi-threading)
+    private TraversalOrder traversalOrder = TraversalOrder.SCANLINE; // the order of the tiles and their pixels
+    private ForkJoinPool threadPool = null; // a pool shared with other cameras, null for a pool per rendering
     private double printInterval;
 
     // --------- fields DOF -------
@@ -39,6 +43,20 @@ public class Camera {
     private double focalDistance = 0;
     private int numOfRays = 1;
     private double apertureSize = 1;
+    private boolean adaptiveDof = false; // scale the DOF rays by the circle of confusion
+
+    private Sampler sampler = Sampler.STRATIFIED; // the sampler of the AA and the DOF rays
+    private boolean deterministic = false; // derive the randomness of each pixel from the seed
+    private long seed = 0;
+
+    // --------- fields of adaptive sampling -------
+    private boolean adaptiveSampling = false;
+    private int minSamples = 8;
+    private int maxSamples = 64;
+    private double noiseThreshold = 1;
+
+    // --------- fields of edge AA -------
+    private boolean edgeAA = false; // supersample only the pixels on edges (in a second pass)
 
     // ***************** Constructors ********************** //
     /**
@@ -124,6 +142,96 @@ public class Camera {
         return distance;
     }
 
+    /**
+     * Getter of the ray tracer of the camera
+     * 
+     * @return the ray tracer
+     */
+    RayTracerBase getRayTracer() {
+        return rayTracerBase;
+    }
+
+    /**
+     * Getter of the image writer of the camera
+     * 
+     * @return the image writer
+     */
+    ImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
+    /**
+     * Getter of the sampler of the AA and the DOF rays
+     * 
+     * @return the sampler
+     */
+    Sampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Getter of the size of the AA beam of a pixel
+     * 
+     * @return the size of the pixel
+     */
+    int getPixelSize() {
+        return pixelSize;
+    }
+
+    /**
+     * Getter of the DOF flag
+     * 
+     * @return true if the depth of field is active
+     */
+    boolean isDepthOfField() {
+        return depthOfField;
+    }
+
+    /**
+     * Getter of the DOF by the circle of confusion flag
+     * 
+     * @return true if the DOF rays are scaled by the circle of confusion
+     */
+    boolean isAdaptiveDepthOfField() {
+        return adaptiveDof;
+    }
+
+    /**
+     * Getter of the amount of the DOF rays of a pixel
+     * 
+     * @return the amount of the rays (including the primary ray)
+     */
+    int getNumOfRays() {
+        return numOfRays;
+    }
+
+    /**
+     * Getter of the distance of the focal plane from the camera
+     * 
+     * @return the focal distance
+     */
+    double getFocalDistance() {
+        return focalDistance;
+    }
+
+    /**
+     * Getter of the deterministic rendering flag (see {@link #setSeed(long)})
+     * 
+     * @return true if the randomness of each pixel is derived from the seed
+     */
+    boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * Getter of the seed of the deterministic rendering
+     * 
+     * @return the seed
+     */
+    long getSeed() {
+        return seed;
+    }
+
     /**
      * This function return the camera after set the new view plane
      * 
@@ -179,6 +287,50 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Set the size of the square tiles of pixels that are the work units of the
+     * threads (see {@link #setMultithreading(int)}).
+     * The defaultive value is 16 pixels.
+     *
+     * @param size the size of the side of a tile in pixels
+     * @return This Camera object
+     */
+    public Camera setTileSize(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("tile size must be positive");
+        this.tileSize = size;
+        return this;
+    }
+
+    /**
+     * Set the order in which the tiles of the image and the pixels in each tile
+     * are rendered (see {@link TraversalOrder}).
+     * The defaultive value is {@link TraversalOrder#SCANLINE}.
+     *
+     * @param order the traversal order
+     * @return This Camera object
+     */
+    public Camera setTraversalOrder(TraversalOrder order) {
+        if (order == null)
+            throw new IllegalArgumentException("traversal order must not be null");
+        this.traversalOrder = order;
+        return this;
+    }
+
+    /**
+     * Set a pool of threads to render on, instead of a new pool of
+     * {@link #setMultithreading(int)} threads per rendering. Several cameras may
+     * share one pool and render their images at the same time (see
+     * {@link #startRender()}); the pool is not shut down by the camera.
+     *
+     * @param pool the pool of threads, null for a pool per rendering
+     * @return This Camera object
+     */
+    public Camera setThreadPool(ForkJoinPool pool) {
+        this.threadPool = pool;
+        return this;
+    }
+
     /**
      * set level of recursion for adaptive super sampling.
      * default value is 3 (recommended).
@@ -252,9 +404,27 @@ public class Camera {
     }
 
     /**
-     * This function checks if all the parameters are valid for the camera
+     * This function checks if all the parameters are valid for the camera and
+     * renders the image (printing the progress if it was required)
+     *
+     * @return This Camera object
      */
     public Camera renderImage() {
+        startRender().await(printInterval);
+        return this;
+    }
+
+    /**
+     * This function checks if all the parameters are valid for the camera and
+     * starts rendering the image.
+     * With multi-threading (or a thread pool) the function returns immediately and
+     * the image is rendered in the background, so several cameras may render at
+     * the same time; otherwise the image is rendered by the calling thread before
+     * the function returns
+     *
+     * @return the session of the rendering, to follow and wait for
+     */
+    public RenderSession startRender() {
         if (p0 == null)
             throw new MissingResourceException("ERROR: The camera position is null", "Camera", "p0");
         if (vUp == null)
@@ -277,149 +447,77 @@ public class Camera {
 
         int nY = imageWriter.getNy();
         int nX = imageWriter.getNx();
+        // a pixel of size 1 is a single ray - the same image with or without threads
+        boolean beam = activateAA && pixelSize != 1;
 
         // cast beam multi-threading
-        if (threadsCount > 0) {
-            Pixel.initialize(nY, nX, printInterval);
-            while (threadsCount-- > 0) {
-                new Thread(() -> {
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone()) {
-                        if (activateAA)
-                            castAABeam(nX, nY, pixel.col, pixel.row, pixelSize);
-                        else
-                            castRay(nX, nY, pixel.col, pixel.row);
-                    }
-                }).start();
-            }
-            Pixel.waitToFinish();
+        if (threadPool != null || threadsCount > 0) {
+            RenderSession session = session(nX, nY, beam);
+            if (threadPool != null)
+                return session.start(threadPool);
+            // a pool of the rendering alone - its threads end when the image is done
+            ForkJoinPool pool = new ForkJoinPool(threadsCount);
+            session.start(pool);
+            pool.shutdown();
+            return session;
         }
 
         // cast beam without multi-threading
-        else {
-            if (!activateAA || pixelSize == 1)
-                for (int i = 0; i < nY; i++)
-                    for (int j = 0; j < nX; j++)
-                        castRay(nX, nY, j, i);
-            else
-                for (int i = 0; i < nX; i++) {
-                    for (int j = 0; j < nY; j++) {
-                        castAABeam(nX, nY, j, i, pixelSize);
-                    }
-                }
-        }
-        return this;
+        return session(nX, nY, beam).run();
     }
 
-    // #region adaptive super sampling (ASS)
-
-        /**
-     * .
-     * This function is calculating color of point on the geometry in the scene by
-     * using ASS.
-     * 
-     * @param nX - the x coordinate on the view plane (width)
-     * @param nY - the y coordinate on the view plane (height)
-     * @param j  - the j coordinate on the Pixel (height)
-     * @param i  - the i coordinate on the pixel (width)
-     * @return color of point on the geometry in the scene
+    /**
+     * The session of the rendering of the image - with edge AA, a pass of a single
+     * ray per pixel and a pass of the pixels on the edges (see {@link EdgeBuffer})
+     *
+     * @param nX   resolution on X axis (number of pixels in row)
+     * @param nY   resolution on Y axis (number of pixels in column)
+     * @param beam true for casting a beam of rays (AA) per pixel
+     * @return the session (not started yet)
      */
-    private Color adaptiveSS(int nX, int nY, int j, int i) {
-        HashMap<Point, Color> pintColorDict = new HashMap<Point, Color>(); // dictionary for ASS
-        Point pij = pixelCenter(nX, nY, j, i);
-        double rX = width / nX / 2;
-        double rY = height / nY / 2;
-
-        Point leftDownPoint = pij.add(vRight.scale(-rX)).add(vUp.scale(-rY));
-        Color leftDownColor = getPointColorFromDict(leftDownPoint, pintColorDict).get(leftDownPoint);
-
-        Point rightDownPoint = pij.add(vRight.scale(rX)).add(vUp.scale(-rY));
-        Color rightDownColor = getPointColorFromDict(rightDownPoint, pintColorDict).get(rightDownPoint);
-
-        Point leftUpPoint = pij.add(vRight.scale(-rX)).add(vUp.scale(rY));
-        Color leftUpColor = getPointColorFromDict(leftUpPoint, pintColorDict).get(leftUpPoint);
-
-        Point rightUpPoint = pij.add(vRight.scale(rX)).add(vUp.scale(rY));
-        Color rightUpColor = getPointColorFromDict(rightUpPoint, pintColorDict).get(rightUpPoint);
-
-        return adaptiveSSHelper(1, pij, rX, rY, leftUpColor, leftDownColor, rightDownColor, rightUpColor, pintColorDict);
+    private RenderSession session(int nX, int nY, boolean beam) {
+        RenderContext context = new RenderContext(this, nX, nY);
+        if (!beam || !edgeAA || adaptiveSampling)
+            return new RenderSession(nX, nY, tileSize, traversalOrder, tileRenderer(context, beam));
+        EdgeBuffer edges = new EdgeBuffer(context);
+        return new RenderSession(nX, nY, tileSize, traversalOrder,
+                (col0, row0, colEnd, rowEnd) -> edges::trace,
+                (col0, row0, colEnd, rowEnd) -> edges::refine);
     }
 
     /**
-     * This function is helping function of {@link #adaptiveSS(int, int, int, int)}
-     * for
-     * calculating color of point on the geometry in the scene by using ASS with
-     * recursion.
-     * 
-     * @param recLevel       - the recursion level
-     * @param pij            - the center point of the pixel
-     * @param rX-            the width of the pixel
-     * @param rY-            the height of the pixel
-     * @param leftUpColor    - the color of the left up point
-     * @param leftDownColor  - the color of the left down point
-     * @param rightDownColor - the color of the right down point
-     * @param rightUpColor   - the color of the right up point
-     * @return color of point on the geometry in the scene
-     */
-    private Color adaptiveSSHelper(int recLevel, Point pij, double rX, double rY,
-            Color leftUpColor, Color leftDownColor, Color rightDownColor, Color rightUpColor, HashMap<Point, Color> pintColorDict) {
-
-        if (recLevel == recLevelForASS) {
-            return rightDownColor.add(leftUpColor).add(rightUpColor).add(leftDownColor).reduce(4);
+     * The renderer of the tiles of the image - with ASS, the pixels of a tile
+     * share the samples of their lattice (see {@link AssTile})
+     *
+     * @param context the context of the rendering
+     * @param beam    true for casting a beam of rays (AA) per pixel
+     * @return the renderer of the tiles
+     */
+    private RenderSession.TileRenderer tileRenderer(RenderContext context, boolean beam) {
+        if (adaptiveSampling) {
+            AdaptiveSampling adaptive = new AdaptiveSampling(context, activateAA, minSamples, maxSamples,
+                    noiseThreshold);
+            return (col0, row0, colEnd, rowEnd) -> adaptive::castPixel;
         }
-        if (rightUpColor.equals(leftUpColor) && rightUpColor.equals(leftDownColor) && rightUpColor.equals(rightDownColor))
-            return rightUpColor;
-        else {
-            Point rightPoint = pij.add(vRight.scale(rX)); 
-            Color rightColor = getPointColorFromDict(rightPoint, pintColorDict).get(rightPoint);
-
-            Point leftPoint = pij.add(vRight.scale(-rX)); 
-            Color leftColor = getPointColorFromDict(leftPoint, pintColorDict).get(leftPoint);
-
-            Point upPoint = pij.add(vUp.scale(rY)); 
-            Color upColor = getPointColorFromDict(upPoint, pintColorDict).get(upPoint);
-
-            Point downPoint = pij.add(vUp.scale(-rY)); 
-            Color downColor = getPointColorFromDict(downPoint, pintColorDict).get(downPoint);
-
-            Color centerColor = getPointColorFromDict(pij, pintColorDict).get(pij);
-
-            rX /= 2;
-            rY /= 2;
-            leftUpColor = adaptiveSSHelper(recLevel + 1, pij.add(vUp.scale(rY / 2)).add(vRight.scale(-rX / 2)), //
-                         rX, rY, leftUpColor, upColor, leftColor, centerColor, pintColorDict);
-            rightUpColor = adaptiveSSHelper(recLevel + 1, pij.add(vUp.scale(rY / 2)).add(vRight.scale(rX / 2)), // 
-                        rX, rY, upColor, rightUpColor, centerColor, leftColor, pintColorDict);
-            leftDownColor = adaptiveSSHelper(recLevel + 1, pij.add(vUp.scale(-rY / 2)).add(vRight.scale(-rX / 2)), //
-                        rX, rY, leftColor, centerColor, leftDownColor, downColor, pintColorDict);
-            rightDownColor = adaptiveSSHelper(recLevel + 1, pij.add(vUp.scale(-rY / 2)).add(vRight.scale(rX / 2)), //
-                        rX, rY, centerColor, rightColor, downColor, rightDownColor, pintColorDict);
-            return rightDownColor.add(leftUpColor).add(rightUpColor).add(leftDownColor).reduce(4);
+        if (!beam || !activeASS) {
+            PixelBeam pixels = new PixelBeam(context);
+            return (col0, row0, colEnd, rowEnd) -> (col, row) -> pixels.castPixel(col, row, beam);
         }
+        return (col0, row0, colEnd, rowEnd) -> {
+            AssTile tile = new AssTile(context, recLevelForASS, col0, row0, colEnd, rowEnd);
+            return (col, row) -> imageWriter.writePixel(col, row, tile.pixelColor(col, row));
+        };
     }
 
-    /**
-     * Helping function, return the color of the point on the geometry in the scene.
-     * If the point's color is not in the dictionary, calculate the color and add it
-     * to the dictionary.
-     * 
-     * @param point - the point on the geometry in the scene
-     * @return the color of the point on the geometry in the scene
-     */
-    private HashMap<Point, Color> getPointColorFromDict(Point point, HashMap<Point, Color> pointColorDict) {
-        if (!(pointColorDict.containsKey(point))) 
-            pointColorDict.put(point, rayTracerBase.traceRay(new Ray(p0, point.subtract(p0))));
-        return pointColorDict;
-    }
-
-    // #endregion
-
     // #region beam for AA
 
     /**
      * This function return a beam (list of rays) from the camera to a point (x,y)
      * on the view plane.
-     * The amount of the rays is pixelSize * pixelSize.
-     * The rays are casted to a random point on the pixel.
+     * The amount of the rays is pixelSize * pixelSize (in addition to the main
+     * ray).
+     * The rays are casted to points on the pixel that are generated by the
+     * sampler of the camera (see {@link #setSampler(Sampler)}).
      *
      * @param nX        - the x coordinate on the view plane (width)
      * @param nY        - the y coordinate on the view plane (height)
@@ -429,23 +527,16 @@ public class Camera {
      * @return a ray from the camera to the point (x,y) on the view plane
      */
     public LinkedList<Ray> constructBeam(int nX, int nY, int j, int i, double pixelSize) {
-
-        // the point from the camera to the point (x,y) on the view plane
-        Point pij = pixelCenter(nX, nY, j, i);
-
-        double ry = height / nY;
-        double rx = width / nX;
+        RenderContext context = new RenderContext(this, nX, nY);
+        double left = context.left(j); // up left corner of pixel
+        double top = context.top(i);
 
         var rayList = new LinkedList<Ray>();
         rayList.add(constructRay(nX, nY, j, i)); // The main ray
 
-        Point pixStart = pij.add(vRight.scale(-rx / 2)).add(vUp.scale(ry / 2)); // up left corner of pixel
-
-        for (double row = 0; row < pixelSize; row++) {
-            for (double col = 0; col < pixelSize; col++) {
-                rayList.add(randomPointRay(pixStart, col / pixelSize, -row / pixelSize));
-            }
-        }
+        double[] samples = sampler.generate((int) (pixelSize * pixelSize), context.pixelRandom(j, i));
+        for (int k = 0; k < samples.length; k += 2)
+            rayList.add(context.sampleRay(left + samples[k] * context.rx, top - samples[k + 1] * context.ry, 0, 0));
         return rayList;
     }
 
@@ -480,57 +571,114 @@ public class Camera {
     }
 
     /**
-     * This function return aRay from the camera to a random point on the pixel.
-     * the pixel is divided by row and col.
-     * The new point is between the original point and the col and row values
+     * setter of activateAA field, true if activate or false if not
      * 
-     * @param pixStart, the original point on the pixel
-     * @param col,      the col coordinate on the pixel
-     * @param row,      the row coordinate on the pixel
-     * @return ray from the camera to a random point on the pixel
+     * @param activate boolean value
+     * @return this
+     */
+    public Camera setActivateAA(boolean activate) {
+        activateAA = activate;
+        return this;
+    }
+
+    /**
+     * Set the sampler of the points of the AA rays on a pixel and of the DOF rays
+     * on the aperture.
+     * The defaultive value is {@link Sampler#STRATIFIED}. The adaptive sampling
+     * uses {@link Sampler#progressive()} of the sampler.
+     *
+     * @param sampler the sampler
+     * @return This Camera object
      */
-    private Ray randomPointRay(Point pixStart, double col, double row) {
-        Point point = pixStart;
-        if (!isZero(col)) // only move on X axis
-            point = point.add(vRight.scale(random(0, col)));
-        if (!isZero(row)) // only move on Y axis
-            point = point.add(vUp.scale(random(row, 0)));
+    public Camera setSampler(Sampler sampler) {
+        if (sampler == null)
+            throw new IllegalArgumentException("sampler must not be null");
+        this.sampler = sampler;
+        return this;
+    }
 
-        return new Ray(p0, point.subtract(p0));
+    /**
+     * Set a deterministic rendering: the random sequence of each pixel (of the AA
+     * and the DOF samplers) is derived from the seed and the coordinates of the
+     * pixel, instead of the random generator of the thread that happens to render
+     * it. So renders of the same scene with the same seed are bit-identical
+     * regardless of the amount of threads and their schedule.
+     * By default the rendering is not deterministic.
+     *
+     * @param seed the seed of the rendering
+     * @return This Camera object
+     */
+    public Camera setSeed(long seed) {
+        this.seed = seed;
+        this.deterministic = true;
+        return this;
     }
 
-    /***
-     * Casting beam of rays from the camera in order to color a pixel.
-     * The result is average of the colors of the rays in the beam.
-     * 
-     * @param nX        resolution on X axis (number of pixels in row)
-     * @param nY        resolution on Y axis (number of pixels in column)
-     * @param col       pixel's column number (pixel index in row)
-     * @param row       pixel's row number (pixel index in column)
-     * @param pixelSize - the size of the pixel
+    /**
+     * Set the variance-driven adaptive sampling: each pixel starts with minSamples
+     * rays, and more rays are added one at a time while the estimated noise of the
+     * pixel's color (the standard error of the mean, in the 0-255 scale of a
+     * component) is above the threshold, up to maxSamples rays.
+     * The rays are spread on the pixel (if AA is active) and on the aperture (with
+     * depth of field) by the sampler of the camera; since the rays are taken by
+     * prefixes of the sets, {@link Sampler#STRATIFIED} (whose prefixes fill the
+     * strata row by row) is replaced by {@link Sampler#SOBOL} (see
+     * {@link Sampler#progressive()}).
+     * The adaptive sampling replaces the AA beam and the ASS.
+     * A flat pixel stops at minSamples rays. A minSamples of 2 is the least that
+     * estimates the noise, but two samples often agree on a pixel that is crossed
+     * by an edge or blurred by the DOF, and the pixel stops with them - so the
+     * default is 8, and a lower minSamples is for scenes of large flat regions
+     * only.
+     * The defaultive values are 8, 64 and 1.
+     *
+     * @param minSamples the initial amount of rays of a pixel, at least 2 for
+     *                   estimating the noise
+     * @param maxSamples the maximum amount of rays of a pixel
+     * @param threshold  the noise that is acceptable
+     * @return This Camera object
      */
-    private void castAABeam(int nX, int nY, int col, int row, int pixelSize) {
-        Color color = Color.BLACK;
-        List<Ray> beam = constructBeam(nX, nY, col, row, pixelSize);
-        if (activeASS) {
-            color = adaptiveSS(nX, nY, col, row);
-            imageWriter.writePixel(col, row, color);
-        } else {
-            beam.addAll(constructRays(nX, nY, col, row));
-            for (Ray ray : beam)
-                color = color.add(this.rayTracerBase.traceRay(ray));
-            imageWriter.writePixel(col, row, color.reduce(beam.size()));
-        }
+    public Camera setAdaptiveSampling(int minSamples, int maxSamples, double threshold) {
+        if (minSamples < 2 || maxSamples < minSamples)
+            throw new IllegalArgumentException("samples amounts must be 2 <= min <= max");
+        if (threshold < 0)
+            throw new IllegalArgumentException("noise threshold must not be negative");
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+        this.noiseThreshold = threshold;
+        this.adaptiveSampling = true;
+        return this;
     }
 
     /**
-     * setter of activateAA field, true if activate or false if not
-     * 
-     * @param activate boolean value
-     * @return this
+     * set on/off the adaptive sampling (see
+     * {@link #setAdaptiveSampling(int, int, double)}).
+     * default value is false.
+     *
+     * @param active - true/false
+     * @return this camera
      */
-    public Camera setActivateAA(boolean activate) {
-        activateAA = activate;
+    public Camera setAdaptiveSampling(boolean active) {
+        this.adaptiveSampling = active;
+        return this;
+    }
+
+    /**
+     * Set on/off the edge-driven AA: the image is rendered in two passes - the
+     * first traces a single ray per pixel and keeps its primary hit, and the
+     * second supersamples (by the beam of pixelSize * pixelSize rays) only the
+     * pixels that differ from a neighbour by the surface that they hit, its
+     * normal, its depth or their color - the silhouettes and the shading edges
+     * (e.g. of shadows), where the aliasing is. The other pixels keep their
+     * single ray.
+     * It replaces the ASS, and the adaptive sampling takes precedence over it.
+     * default value is false.
+     *
+     * @param active - true/false
+     * @return this camera
+     */
+    public Camera setEdgeAA(boolean active) {
+        this.edgeAA = active;
         return this;
     }
 
@@ -547,28 +695,6 @@ public class Camera {
 
     // #endregion
 
-    /**
-     * Cast ray from camera in order to color a pixel
-     * 
-     * @param nX  resolution on X axis (number of pixels in row)
-     * @param nY  resolution on Y axis (number of pixels in column)
-     * @param col pixel's column number (pixel index in row)
-     * @param row pixel's row number (pixel index in column)
-     */
-    private void castRay(int nX, int nY, int col, int row) {
-
-        List<Ray> rays = this.constructRays(nX, nY, col, row);
-
-        Color color = Color.BLACK;
-        for (Ray ray : rays) {
-            color = color.add(this.rayTracerBase.traceRay(ray));
-        }
-        if (rays.size() > 1)
-            imageWriter.writePixel(col, row, color.reduce(rays.size()));
-        else
-            imageWriter.writePixel(col, row, color);
-    }
-
     /**
      * Create grid of lines to draw the view plane
      * 
@@ -613,11 +739,11 @@ public class Camera {
     public Camera cameraPosition(Point newPosition, Point target, double angle) {
         p0 = newPosition;
         vTo = target.subtract(newPosition).normalize();
-        try {
-            vRight = vTo.crossProduct(Vector.Y).normalize();
+        vRight = vTo.tryCrossProduct(Vector.Y);
+        if (vRight != null) {
+            vRight = vRight.normalize();
             vUp = vTo.crossProduct(vRight).normalize();
-
-        } catch (IllegalArgumentException e) {
+        } else { // looking along the Y axis
             vUp = Vector.Z;
             vRight = vTo.crossProduct(vUp).normalize();
         }
@@ -670,6 +796,23 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Set on/off the DOF by the circle of confusion: the amount of the DOF rays of
+     * a pixel is scaled by the area of the circle of confusion of its primary hit
+     * - the blur of the distance of the hit from the focal distance (by the thin
+     * lens model) - up to the amount of the DOF rays. Pixels whose hit is in focus
+     * (blur of less than half a pixel) and background pixels (with no hit) take a
+     * single ray.
+     * default value is false.
+     *
+     * @param active - true/false
+     * @return this camera
+     */
+    public Camera setAdaptiveDepthOfField(boolean active) {
+        this.adaptiveDof = active;
+        return this;
+    }
+
     /**
      * Set boolean to false or true to disable depth of field
      * 
@@ -696,31 +839,48 @@ public class Camera {
         // add the center ray to the list
         Ray centerRay = constructRay(nX, nY, j, i);
         rays.add(centerRay);
-        // calculate the actual size of a pixel
-        // pixel height is the division of the view plane height in the number of rows
-        // of pixels
-        double pixelHeight = alignZero(height / nY); // Ry = h/Ny
-        // pixel width is the division of the view plane width in the number of columns
-        // of pixels
-        double pixelWidth = alignZero(width / nX); // Rx = w/Nx
         // if more then one ray is emitted (DOF effect)
         if (numOfRays != 1) {
             List<Ray> tempRays = new LinkedList<>();
-            // apertureSize is the value of how many pixels it spreads on
-            double apertureRadius = Math.sqrt(apertureSize * (pixelHeight * pixelWidth)) / 2d;
+            double apertureRadius = apertureRadius(nX, nY);
+            RenderContext context = new RenderContext(this, nX, nY);
+            RandomGenerator random = context.pixelRandom(j, i);
+            LensProbes probes = adaptiveDof && !isZero(apertureRadius)
+                    ? LensProbes.probePixel(context, j, i, centerRay, apertureRadius, random)
+                    : null;
+            // the rays of the list are of equal weights, so the probes only count them
+            int count = probes == null ? numOfRays : probes.count;
             for (Ray ray : rays) {
                 // creating list of focal rays
                 tempRays.addAll(
-                        // ray.randomRaysInCircle(ray.getP0(), vUp, vRight, apertureRadius, numOfRays,
-                        // focalDistance));
-                        ray.raysInGrid(ray.getP0(), vUp, vRight, apertureRadius, numOfRays,
-                                focalDistance));
+                        ray.raysInCircle(ray.getP0(), vUp, vRight, apertureRadius, count,
+                                focalDistance, sampler, random));
             }
             // the original rays included in the temp rays
             rays = tempRays;
         }
         return rays;
     }
+
+    /**
+     * The radius of the aperture of the DOF
+     *
+     * @param nX - amount of columns in view plane (number of pixels)
+     * @param nY - amount of rows in view plane (number of pixels)
+     * @return the radius of the aperture
+     */
+    double apertureRadius(int nX, int nY) {
+        // calculate the actual size of a pixel
+        // pixel height is the division of the view plane height in the number of rows
+        // of pixels
+        double pixelHeight = alignZero(height / nY); // Ry = h/Ny
+        // pixel width is the division of the view plane width in the number of columns
+        // of pixels
+        double pixelWidth = alignZero(width / nX); // Rx = w/Nx
+        // apertureSize is the value of how many pixels it spreads on
+        return Math.sqrt(apertureSize * (pixelHeight * pixelWidth)) / 2d;
+    }
+
     // #endregion
 
 }
@@ -0,0 +1,123 @@
+package renderer;
+
+import static geometries.Intersectable.GeoPoint;
+import static primitives.Util.*;
+
+import geometries.Geometry;
+import primitives.*;
+
+/**
+ * The buffer of the primary hits of the pixels for the edge-driven AA (see
+ * {@link Camera#setEdgeAA(boolean)}).
+ * The first pass traces the ray of the center of each pixel, keeps its hit,
+ * depth and color and writes the pixel without AA. The second pass compares
+ * each pixel with its neighbours (left, right, up and down) and supersamples
+ * only the pixels that differ from one of them, reusing their center samples.
+ * With DOF, the first pass spreads the DOF rays of a pixel on the pixel too
+ * and keeps their sums (see {@link PixelBeam.Samples}), so the second pass adds
+ * only the rest of the samples of the beam instead of tracing them again.<br/>
+ * A pass writes only the entries of its own pixels and reads the others only
+ * after the previous pass is done, so the buffer is shared by the threads
+ * without locks
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+class EdgeBuffer {
+    private static final double EDGE_NORMAL_COS = 0.9; // cosine of the angle of a crease (about 25 degrees)
+    private static final double EDGE_DEPTH = 0.1; // relative difference of the depths of a depth edge
+    private static final double EDGE_CONTRAST = 16; // difference of a color component of a shading edge
+
+    private final RenderContext context;
+    private final PixelBeam pixels;
+    private final int nX;
+    private final int nY;
+    private final GeoPoint[] hits; // the primary hits, null for the background
+    private final double[] depths; // the distances of the hits from the camera
+    private final Color[] colors; // the colors of the rays of the centers
+    private final PixelBeam.Samples[] samples; // the DOF samples of the first pass, null without DOF
+
+    /**
+     * Constructor of the buffer of an image
+     *
+     * @param context the context of the rendering
+     */
+    EdgeBuffer(RenderContext context) {
+        this.context = context;
+        pixels = new PixelBeam(context);
+        nX = context.nX;
+        nY = context.nY;
+        hits = new GeoPoint[nX * nY];
+        depths = new double[nX * nY];
+        colors = new Color[nX * nY];
+        samples = isZero(context.apertureRadius) ? null : new PixelBeam.Samples[nX * nY];
+    }
+
+    /**
+     * The first pass - trace the center of a pixel and color the pixel without AA
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     */
+    void trace(int col, int row) {
+        Ray centerRay = context.pixelRay(col, row);
+        GeoPoint hit = context.tracer.findClosestHit(centerRay);
+        Color color = context.tracer.traceHit(hit, centerRay);
+        int index = row * nX + col;
+        hits[index] = hit;
+        colors[index] = color;
+        if (hit == null)
+            depths[index] = Double.POSITIVE_INFINITY;
+        else {
+            hit.getNormal(); // calculated now, so the second pass only reads the hit
+            depths[index] = Double.isNaN(hit.t) ? hit.point.distance(context.p0) : hit.t;
+        }
+        PixelBeam.Samples pixelSamples = null;
+        if (samples != null)
+            samples[index] = pixelSamples = new PixelBeam.Samples();
+        context.imageWriter.writePixel(col, row,
+                pixels.pixelColor(col, row, false, centerRay, hit, color, pixelSamples));
+    }
+
+    /**
+     * The second pass - supersample a pixel if it is on an edge
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     */
+    void refine(int col, int row) {
+        int index = row * nX + col;
+        if (col > 0 && isEdge(index, index - 1) || col < nX - 1 && isEdge(index, index + 1)
+                || row > 0 && isEdge(index, index - nX) || row < nY - 1 && isEdge(index, index + nX))
+            context.imageWriter.writePixel(col, row, pixels.pixelColor(col, row, true, context.pixelRay(col, row),
+                    hits[index], colors[index], samples == null ? null : samples[index]));
+    }
+
+    /**
+     * Check whether there is an edge between two pixels - their rays hit
+     * different surfaces (a geometry and the background, or geometries of
+     * different materials or emissions), surfaces of different directions or
+     * depths, or their colors differ (e.g. the edge of a shadow)
+     *
+     * @param a index of a pixel
+     * @param b index of the other pixel
+     * @return true if the pixels are on the two sides of an edge
+     */
+    private boolean isEdge(int a, int b) {
+        Color colorA = colors[a], colorB = colors[b];
+        if (Math.abs(Math.min(colorA.getRed(), 255) - Math.min(colorB.getRed(), 255)) > EDGE_CONTRAST
+                || Math.abs(Math.min(colorA.getGreen(), 255) - Math.min(colorB.getGreen(), 255)) > EDGE_CONTRAST
+                || Math.abs(Math.min(colorA.getBlue(), 255) - Math.min(colorB.getBlue(), 255)) > EDGE_CONTRAST)
+            return true;
+        GeoPoint hitA = hits[a], hitB = hits[b];
+        if (hitA == null || hitB == null)
+            return hitA != hitB;
+        Geometry geometryA = hitA.geometry, geometryB = hitB.geometry;
+        // the faces of a mesh of triangles with a common material are a single surface
+        if (geometryA != geometryB && (geometryA.getMaterial() != geometryB.getMaterial()
+                || !geometryA.getEmission().equals(geometryB.getEmission())))
+            return true;
+        if (hitA.normal.dotProduct(hitB.normal) < EDGE_NORMAL_COS)
+            return true;
+        return Math.abs(depths[a] - depths[b]) > EDGE_DEPTH * Math.min(depths[a], depths[b]);
+    }
+}
@@ -0,0 +1,42 @@
+package renderer;
+
+/**
+ * The file format of the images written by an {@link ImageWriter}.<br/>
+ * PNG is compressed, so it is small but slow to write for large images. The
+ * raw formats are written straight from the pixel colors of the writer with no
+ * encoding - for intermediate images that are read by other tools
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public enum ImageFormat {
+    /**
+     * Compressed 8 bit RGB (written by {@link javax.imageio.ImageIO})
+     */
+    PNG("png"),
+    /**
+     * Binary portable pixmap ("P6") - raw 8 bit RGB
+     */
+    PPM("ppm"),
+    /**
+     * Portable float map ("PF") - raw 32 bit float RGB, not clamped (HDR)
+     */
+    PFM("pfm");
+
+    private final String extension;
+
+    /**
+     * @param extension the extension of the file name
+     */
+    ImageFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Getter of the extension of the files of the format
+     *
+     * @return the extension (without the dot)
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -2,8 +2,14 @@ package renderer;
 
 import primitives.Color;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,7 +19,13 @@ import javax.imageio.*;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution<br/>
+ * The pixel colors are kept unclamped in a flat float array (3 floats per
+ * pixel), so the rendering threads only store numbers to their own pixels, and
+ * the colors may be accumulated over several passes. They are clamped to 8 bits
+ * only once, in a single pass over the array, when the image is written.<br/>
+ * The image is written as PNG, or in one of the raw formats of
+ * {@link ImageFormat} straight from the array
  * 
  * @author Dan
  */
@@ -26,8 +38,11 @@ public class ImageWriter {
     //private static final String FOLDER_PATH = "c:\\projects\\ISE5782_0776_5409\\ISE5782_0776_5409\\images";
     private static final String FOLDER_PATH = "images";
 
-    private BufferedImage image;
+    private final float[] pixels; // r, g, b of each pixel, row by row
     private String imageName;
+    private ImageFormat format = ImageFormat.PNG;
+
+    private static final int CHUNK_SIZE = 1 << 20; // bytes of the buffer of the raw formats
 
     private Logger logger = Logger.getLogger("ImageWriter");
 
@@ -44,7 +59,7 @@ public class ImageWriter {
         this.nX = nX;
         this.nY = nY;
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        pixels = new float[3 * nX * nY];
     }
 
     // ***************** Getters/Setters ********************** //
@@ -66,17 +81,32 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * Setter of the file format of the image (PNG by default)
+     * 
+     * @param format the format
+     * @return the image writer itself
+     */
+    public ImageWriter setFormat(ImageFormat format) {
+        this.format = format;
+        return this;
+    }
+
     // ***************** Operations ******************** //
 
     /**
-     * Function writeToImage produces un-optimized png file of the image according
-     * to
-     * pixel color matrix in the directory of the project
+     * Function writeToImage produces un-optimized image file (in the format of
+     * the writer) according to pixel color matrix in the directory of the
+     * project
      */
     public void writeToImage() {
+        Path file = Path.of(FOLDER_PATH, imageName + "." + format.getExtension());
         try {
-            File file = new File(FOLDER_PATH + "\\" + imageName + ".png");
-            ImageIO.write(image, "png", file);
+            switch (format) {
+                case PNG -> ImageIO.write(toImage(), "png", file.toFile());
+                case PPM -> writeRaw(file, "P6\n" + nX + " " + nY + "\n255\n", 3);
+                case PFM -> writeRaw(file, "PF\n" + nX + " " + nY + "\n-1.0\n", 12);
+            }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "I/O error", e);
             throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
@@ -92,7 +122,113 @@ public class ImageWriter {
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        int i = 3 * (yIndex * nX + xIndex);
+        pixels[i] = (float) color.getRed();
+        pixels[i + 1] = (float) color.getGreen();
+        pixels[i + 2] = (float) color.getBlue();
+    }
+
+    /**
+     * The function addPixel adds a color to the color of a specific pixel (e.g.
+     * the result of another rendering pass)
+     * 
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  the added color
+     */
+    public void addPixel(int xIndex, int yIndex, Color color) {
+        int i = 3 * (yIndex * nX + xIndex);
+        pixels[i] += (float) color.getRed();
+        pixels[i + 1] += (float) color.getGreen();
+        pixels[i + 2] += (float) color.getBlue();
+    }
+
+    /**
+     * The function getPixel reads the color of a specific pixel
+     * 
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the color of the pixel (not clamped)
+     */
+    public Color getPixel(int xIndex, int yIndex) {
+        int i = 3 * (yIndex * nX + xIndex);
+        return new Color(pixels[i], pixels[i + 1], pixels[i + 2]);
+    }
+
+    /**
+     * Convert the pixel colors into an 8 bit RGB image
+     * 
+     * @return the image
+     */
+    private BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        WritableRaster raster = image.getRaster();
+        int[] rgb = new int[nX];
+        for (int row = 0, i = 0; row < nY; ++row) {
+            for (int col = 0; col < nX; ++col, i += 3)
+                rgb[col] = toByte(pixels[i]) << 16 | toByte(pixels[i + 1]) << 8 | toByte(pixels[i + 2]);
+            raster.setDataElements(0, row, nX, 1, rgb);
+        }
+        return image;
+    }
+
+    /**
+     * Write the pixel colors into a file of a raw format - a text header and the
+     * rows of the pixels, written by chunks of rows from a single buffer.<br/>
+     * PPM rows are written from top to bottom, 3 bytes per pixel. PFM rows are
+     * written from bottom to top (as the format defines), 3 little endian floats
+     * per pixel (the negative scale in the header marks the byte order)
+     * 
+     * @param file          the file
+     * @param header        the header of the format
+     * @param bytesPerPixel 3 for PPM, 12 for PFM
+     * @throws IOException if the file could not be written
+     */
+    private void writeRaw(Path file, String header, int bytesPerPixel) throws IOException {
+        int rowSize = nX * bytesPerPixel;
+        int rowsPerChunk = Math.max(1, CHUNK_SIZE / rowSize);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(rowsPerChunk * rowSize).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII)));
+            for (int row = 0; row < nY; ++row) {
+                int i = 3 * nX * (bytesPerPixel == 3 ? row : nY - 1 - row);
+                if (bytesPerPixel == 3)
+                    for (int end = i + 3 * nX; i < end; ++i)
+                        buffer.put((byte) toByte(pixels[i]));
+                else
+                    for (int end = i + 3 * nX; i < end; ++i)
+                        buffer.putFloat(pixels[i]);
+                if (buffer.remaining() < rowSize)
+                    write(channel, buffer.flip());
+            }
+            write(channel, buffer.flip());
+        }
+    }
+
+    /**
+     * Write all the remaining bytes of a buffer into a channel, and clear the
+     * buffer
+     * 
+     * @param channel the channel
+     * @param buffer  the buffer
+     * @throws IOException if the channel could not be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Convert a color component into 8 bits - it is truncated and clamped to 255
+     * (as by {@link Color#getColor()})
+     * 
+     * @param component the color component (not negative)
+     * @return the component in the range 0..255
+     */
+    private static int toByte(float component) {
+        return Math.min((int) component, 255);
     }
 
 }
@@ -0,0 +1,157 @@
+package renderer;
+
+import static geometries.Intersectable.GeoPoint;
+import static primitives.Util.*;
+
+import java.util.random.RandomGenerator;
+
+import primitives.*;
+
+/**
+ * The probes of the blur of a pixel by the circle of confusion (see
+ * {@link Camera#setAdaptiveDepthOfField(boolean)}).
+ * Besides the primary hit, the cone of the rays of the pixel is probed by the
+ * {@value #DOF_PROBES} outermost samples of the set of the aperture samples of
+ * the pixel (by intersections only, without shading), so a pixel in focus or
+ * in the background next to a blurred object in the front gets the rays of its
+ * blur too.<br/>
+ * A blurred pixel shades the probes from their hits instead of tracing them
+ * again. Each sample of the set stands for an equal part of the aperture, so
+ * the probes are the samples of the outer ring of their parts, and the other
+ * samples (the primary ray and a part of the set) of the inner circle - the
+ * colors of the two are weighted by their parts. A pixel that takes the whole
+ * set weighs all the samples equally.
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+class LensProbes {
+    /** rays that probe the cone of a pixel for its blur */
+    static final int DOF_PROBES = 8;
+
+    private final RayTracerBase tracer;
+    final Ray centerRay;
+    final GeoPoint hit;
+    final Ray[] rays;
+    private final GeoPoint[] hits;
+    /**
+     * the amount of the DOF rays of the pixel (including the primary ray): 1 for
+     * a pixel in focus or in the background, otherwise about the area of the
+     * largest circle in pixels and at least the primary ray and the probes
+     */
+    final int count;
+    /** the part of the aperture of the probes */
+    final double weight;
+
+    /**
+     * Constructor - probe the cone of the rays of a pixel
+     *
+     * @param context        the context of the rendering
+     * @param centerRay      the primary ray of the pixel
+     * @param hit            the primary hit of the pixel, null if there is none
+     * @param rays           the rays of the outermost aperture samples
+     * @param samples        the amount of the aperture samples of the set of the
+     *                       pixel (including the primary ray)
+     * @param apertureRadius the radius of the aperture
+     */
+    LensProbes(RenderContext context, Ray centerRay, GeoPoint hit, Ray[] rays, int samples, double apertureRadius) {
+        tracer = context.tracer;
+        this.centerRay = centerRay;
+        this.hit = hit;
+        this.rays = rays;
+        weight = (double) rays.length / samples;
+        hits = new GeoPoint[rays.length];
+        if (isZero(context.focalDistance)) {
+            count = 1;
+            return;
+        }
+        double pixel = Math.sqrt(context.rx * context.ry);
+        double coc = circleOfConfusion(context, hit, apertureRadius, pixel);
+        for (int k = 0; k < rays.length; ++k) {
+            hits[k] = tracer.findClosestHit(rays[k]);
+            coc = Math.max(coc, circleOfConfusion(context, hits[k], apertureRadius, pixel));
+        }
+        count = coc < 0.5 ? 1
+                : Math.max(1 + rays.length, (int) Math.min(context.numOfRays, Math.ceil(Math.PI * coc * coc) + 1));
+    }
+
+    /**
+     * The color of a probe, traced from its hit
+     *
+     * @param k the index of the probe
+     * @return the color of the probe
+     */
+    Color trace(int k) {
+        return tracer.traceHit(hits[k], rays[k]);
+    }
+
+    /**
+     * The probes of the blur of a pixel through its center, for the rendering
+     * that takes the other samples of the pixel in its own way
+     *
+     * @param context        the context of the rendering
+     * @param col            pixel's column number (pixel index in row)
+     * @param row            pixel's row number (pixel index in column)
+     * @param centerRay      the primary ray of the pixel
+     * @param apertureRadius the radius of the aperture
+     * @param random         the source of the randomness of the pixel
+     * @return the probes of the pixel
+     */
+    static LensProbes probePixel(RenderContext context, int col, int row, Ray centerRay, double apertureRadius,
+            RandomGenerator random) {
+        double right = context.left(col) + context.rx / 2;
+        double up = context.top(row) - context.ry / 2;
+        double[] lens = Sampler.toDisk(context.sampler.generate(context.numOfRays - 1, random));
+        Ray[] rays = new Ray[outermostFirst(lens)];
+        for (int k = 0; k < rays.length; ++k)
+            rays[k] = context.sampleRay(right, up, apertureRadius * lens[2 * k], apertureRadius * lens[2 * k + 1]);
+        return new LensProbes(context, centerRay, context.tracer.findClosestHit(centerRay), rays, context.numOfRays,
+                apertureRadius);
+    }
+
+    /**
+     * Move the samples of the probes of the blur - the outermost samples of a set
+     * of samples of the aperture - to the start of the set
+     *
+     * @param lens the coordinates of the samples (x0, y0, x1, y1...) in the unit
+     *             circle
+     * @return the amount of the probes
+     */
+    static int outermostFirst(double[] lens) {
+        int probes = Math.min(DOF_PROBES, lens.length / 2);
+        for (int k = 0; k < 2 * probes; k += 2) {
+            int outermost = k;
+            for (int j = k + 2; j < lens.length; j += 2)
+                if (lens[j] * lens[j] + lens[j + 1] * lens[j + 1] > lens[outermost] * lens[outermost]
+                        + lens[outermost + 1] * lens[outermost + 1])
+                    outermost = j;
+            double x = lens[k], y = lens[k + 1];
+            lens[k] = lens[outermost];
+            lens[k + 1] = lens[outermost + 1];
+            lens[outermost] = x;
+            lens[outermost + 1] = y;
+        }
+        return probes;
+    }
+
+    /**
+     * The radius of the circle of confusion of a hit in pixels.
+     * By the thin lens model, the rays from the aperture to the focal point spread
+     * at the distance d of the hit to a circle of radius
+     * apertureRadius * |d - focalDistance| / focalDistance, which is seen on the
+     * view plane at the scale of distance / d.
+     *
+     * @param context        the context of the rendering
+     * @param hit            the hit, null if there is none
+     * @param apertureRadius the radius of the aperture
+     * @param pixel          the size of a pixel
+     * @return the radius of the circle, 0 if there is no hit
+     */
+    private static double circleOfConfusion(RenderContext context, GeoPoint hit, double apertureRadius,
+            double pixel) {
+        if (hit == null)
+            return 0;
+        double d = hit.t;
+        return apertureRadius * Math.abs(d - context.focalDistance) / context.focalDistance * context.distance / d
+                / pixel;
+    }
+}
@@ -0,0 +1,146 @@
+package renderer;
+
+import static geometries.Intersectable.GeoPoint;
+import static primitives.Util.*;
+
+import java.util.random.RandomGenerator;
+
+import primitives.*;
+
+/**
+ * The sampling of a pixel by a single stream of samples: the center of the
+ * pixel, the beam of the AA on the pixel and the rays of the DOF on the
+ * aperture (see {@link #pixelColor(int, int, boolean, Ray, GeoPoint, Color, Samples)}).
+ * It keeps no state of its own (the samples of the edge AA are kept by the
+ * caller), so it is shared by the threads of the rendering
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+class PixelBeam {
+    private final RenderContext context;
+
+    /**
+     * The samples of a pixel that are traced so far, so the second pass of the
+     * edge AA (see {@link EdgeBuffer}) continues the samples of the first pass
+     */
+    static class Samples {
+        private final ColorAccumulator color = new ColorAccumulator(); // the center and the other samples
+        private final ColorAccumulator ring = new ColorAccumulator(); // the probes of the DOF by the CoC
+        private double weight = 0; // the part of the aperture of the probes
+        private int lensCount; // the amount of the aperture samples (including the center), 1 in focus
+        private int next = 0; // the index of the next sample of the sets of the pixel
+    }
+
+    /**
+     * Constructor of the sampling of the pixels of a rendering
+     *
+     * @param context the context of the rendering
+     */
+    PixelBeam(RenderContext context) {
+        this.context = context;
+    }
+
+    /***
+     * Casting the samples of a pixel from the camera in order to color it (see
+     * {@link #pixelColor(int, int, boolean, Ray, GeoPoint, Color, Samples)}).
+     *
+     * @param col  pixel's column number (pixel index in row)
+     * @param row  pixel's row number (pixel index in column)
+     * @param beam true for spreading the samples on the pixel (AA)
+     */
+    void castPixel(int col, int row, boolean beam) {
+        // the center sample - its hit is found once for the DOF amount and the color
+        Ray centerRay = context.pixelRay(col, row);
+        GeoPoint hit = context.tracer.findClosestHit(centerRay);
+        context.imageWriter.writePixel(col, row,
+                pixelColor(col, row, beam, centerRay, hit, context.tracer.traceHit(hit, centerRay), null));
+    }
+
+    /***
+     * Calculate the color of a pixel by its samples.
+     * The samples are a single stream of (view plane point, aperture point)
+     * pairs: the first is the center of the pixel through the center of the
+     * aperture (traced by the caller), and the others are spread on the pixel (AA
+     * beam of pixelSize * pixelSize samples) and on the aperture (DOF rays) by the
+     * sampler of the camera - the aperture set is shuffled, so the point on the
+     * aperture is independent of the point on the pixel. Each sample is traced
+     * once and the result is the average of their colors.<br/>
+     * The samples of the first pass of the edge AA are kept: they are the DOF rays
+     * of the sets of the beam, and the second pass traces only the rest of the
+     * beam.
+     *
+     * @param col       pixel's column number (pixel index in row)
+     * @param row       pixel's row number (pixel index in column)
+     * @param beam      true for spreading the samples on the pixel (AA)
+     * @param centerRay the ray of the center of the pixel
+     * @param hit       the closest hit of the center ray, null if it hits nothing
+     * @param center    the color of the center ray
+     * @param samples   the samples of the pixel that are kept between the passes of
+     *                  the edge AA, null for a single pass
+     * @return the color of the pixel
+     */
+    Color pixelColor(int col, int row, boolean beam, Ray centerRay, GeoPoint hit, Color center, Samples samples) {
+        double rx = context.rx;
+        double ry = context.ry;
+        double left = context.left(col); // the left up corner of the pixel
+        double top = context.top(row);
+
+        double apertureRadius = context.apertureRadius;
+        int lensCount = isZero(apertureRadius) ? 1 : context.numOfRays; // at most, with the DOF by the CoC
+        // the kept samples are of the sets of the beam from the first pass
+        int filmCount = beam || samples != null ? 1 + context.pixelSize * context.pixelSize : 1;
+        int count = Math.max(lensCount, filmCount);
+        if (count == 1)
+            return center;
+
+        RandomGenerator random = context.pixelRandom(col, row); // one stream for all the samples of the pixel
+        Sampler sampler = context.sampler;
+        // with the DOF by the CoC or with the kept samples, the pixel takes a prefix
+        // of its film samples
+        boolean probed = context.adaptiveDof && lensCount > 1;
+        double[] film = filmCount == 1 ? null
+                : (probed || samples != null ? sampler.progressive() : sampler).generate(count - 1, random);
+        // the k-th film sample is paired with the k-th lens sample, so the lens set
+        // must not repeat the order of the film set
+        double[] lens = lensCount == 1 ? null
+                : Sampler.toDisk(Sampler.shuffle(sampler.generate(count - 1, random), random));
+        if (samples == null)
+            samples = new Samples();
+        if (samples.color.getCount() == 0) { // the first samples of the pixel
+            samples.color.add(center);
+            samples.lensCount = lensCount;
+            if (probed) {
+                Ray[] rays = new Ray[LensProbes.outermostFirst(lens)];
+                for (int k = 0; k < rays.length; ++k)
+                    rays[k] = context.sampleRay(left + (film == null ? 0.5 : film[2 * k]) * rx,
+                            top - (film == null ? 0.5 : film[2 * k + 1]) * ry, apertureRadius * lens[2 * k],
+                            apertureRadius * lens[2 * k + 1]);
+                LensProbes probes = new LensProbes(context, centerRay, hit, rays, count, apertureRadius);
+                samples.lensCount = probes.count; // 1 in focus or in the background
+                if (probes.count > 1) {
+                    for (int k = 0; k < rays.length; ++k)
+                        samples.ring.add(probes.trace(k));
+                    samples.weight = probes.weight;
+                    samples.next = rays.length;
+                }
+            }
+        } else if (probed)
+            LensProbes.outermostFirst(lens); // the order of the first pass
+        if (samples.lensCount == 1)
+            lens = null;
+
+        int end = beam ? Math.max(samples.lensCount, filmCount) : samples.lensCount;
+        for (int k = samples.next; k < end - 1; ++k) {
+            double right = left + (film == null ? 0.5 : film[2 * k]) * rx;
+            double up = top - (film == null ? 0.5 : film[2 * k + 1]) * ry;
+            samples.color.add(context.tracer.traceRay(lens == null ? context.sampleRay(right, up, 0, 0)
+                    : context.sampleRay(right, up, apertureRadius * lens[2 * k], apertureRadius * lens[2 * k + 1])));
+        }
+        samples.next = Math.max(samples.next, end - 1);
+        if (samples.ring.getCount() == 0)
+            return samples.color.getAverage();
+        // the probes and the other samples are weighted by their parts of the aperture
+        return samples.ring.getAverage().scale(samples.weight)
+                .add(samples.color.getAverage().scale(1 - samples.weight));
+    }
+}
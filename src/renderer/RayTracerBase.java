@@ -3,6 +3,7 @@ package renderer;
 import primitives.Color;
 import primitives.Ray;
 import scene.Scene;
+import static geometries.Intersectable.GeoPoint;
 
 /**
  * Abstract class to find the intersections of ray with the scene
@@ -30,4 +31,27 @@ public abstract class RayTracerBase {
      */
     abstract Color traceRay(Ray ray);
 
+    /**
+     * Find the closest intersection of a ray with the scene (e.g. the distance of
+     * the hit of a primary ray)
+     * 
+     * @param ray the ray
+     * @return the closest intersection, or null if the ray hits nothing
+     */
+    GeoPoint findClosestHit(Ray ray) {
+        return scene.geometries.findClosestGeoIntersection(ray);
+    }
+
+    /**
+     * Trace a ray whose closest intersection was found already by
+     * {@link #findClosestHit(Ray)}, so it is not searched for again
+     * 
+     * @param hit the closest intersection of the ray, null if there is none
+     * @param ray the ray to trace
+     * @return the color of the intersection
+     */
+    Color traceHit(GeoPoint hit, Ray ray) {
+        return traceRay(ray);
+    }
+
 }
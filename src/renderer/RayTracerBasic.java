@@ -1,7 +1,5 @@
 package renderer;
 
-import java.util.List;
-
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
@@ -57,8 +55,17 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     Color traceRay(Ray ray) {
-        GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
+        return traceHit(findClosestIntersection(ray), ray);
+    }
+
+    @Override
+    GeoPoint findClosestHit(Ray ray) {
+        return findClosestIntersection(ray);
+    }
+
+    @Override
+    Color traceHit(GeoPoint hit, Ray ray) {
+        return hit == null ? scene.background : calcColor(hit, ray);
     }
 
     /**
@@ -113,8 +120,8 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color of the point with consideration of global effects
      */
     private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Vector n = gp.geometry.getNormal(gp.point);
-        Material material = gp.geometry.getMaterial();
+        Vector n = gp.getNormal();
+        Material material = gp.getMaterial();
         return calcGlobalEffect(constructReflectedRay(ray, n, gp.point), level, k, material.kR)
                 .add(calcGlobalEffect(constructRefractedRay(ray, n, gp.point), level, k, material.kT));
     }
@@ -154,13 +161,14 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color of the point with consideration of local effects
      */
     private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
-        Color color = gp.geometry.getEmission();
+        Color emission = gp.geometry.getEmission();
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         double nv = Util.alignZero(n.dotProduct(v));
         if (nv == 0)
-            return color;
-        Material material = gp.geometry.getMaterial();
+            return emission;
+        ColorAccumulator color = new ColorAccumulator().add(emission);
+        Material material = gp.getMaterial();
         Double3 kD = material.kD;
         Double3 kS = material.kS;
         double nShininess = material.nShininess;
@@ -172,12 +180,12 @@ public class RayTracerBasic extends RayTracerBase {
                 Double3 ktr = transparency(gp, lightSource, l, n);
                 if (ktr.product(k).higherThan(MIN_CALC_COLOR_K)) {
                     Color iL = lightSource.getIntensity(gp.point).scale(ktr);
-                    color = color.add(iL.scale(calcDiffusive(kD, nl)), iL.scale(calcSpecular(kS,
-                            nShininess, n, l, nl, v)));
+                    color.add(iL, calcDiffusive(kD, nl))
+                            .add(iL, calcSpecular(kS, nShininess, nl, nv, l.dotProduct(v)));
                 }
             }
         }
-        return color;
+        return color.getSum();
     }
 
     /**
@@ -192,20 +200,20 @@ public class RayTracerBasic extends RayTracerBase {
     }
 
     /**
-     * this function calculates the specular component of the color
+     * this function calculates the specular component of the color.
+     * The reflection of the (unit) light vector r = l - 2(n*l)n is a unit vector,
+     * so -v*r = 2(n*l)(n*v) - l*v is calculated by the dot products alone
      * 
      * @param kS         is the specular component of the material
      * @param nShininess the normal of the geometry
-     * @param n          the normal of the geometry
-     * @param l          the light vector
      * @param nl         the dot product of the normal and the light vector
-     * @param v          the view vector
+     * @param nv         the dot product of the normal and the view vector
+     * @param lv         the dot product of the light vector and the view vector
      * @return the specular component of the color
      * 
      */
-    private Double3 calcSpecular(Double3 kS, double nShininess, Vector n, Vector l, double nl, Vector v) {
-        Vector r = l.subtract(n.scale(2 * nl)).normalize(); // opposite to reflection
-        double factor = -v.dotProduct(r); // -v*reflection
+    private Double3 calcSpecular(Double3 kS, double nShininess, double nl, double nv, double lv) {
+        double factor = 2 * nl * nv - lv; // -v*reflection
         return Util.alignZero(factor) <= 0 ? Double3.ZERO : kS.scale(Math.pow(factor, nShininess));
     }
 
@@ -214,7 +222,7 @@ public class RayTracerBasic extends RayTracerBase {
      * the light source.
      * For each intersection which is closer to the
      * point than the light source multiply ktr by {@link Material#kT} of its
-     * geometry.
+     * geometry (the search stops at the first opaque geometry).
      * The returned value is the transparency value between 1 (no Shaded at all) and
      * 0 (full shaded).
      * 
@@ -227,21 +235,8 @@ public class RayTracerBasic extends RayTracerBase {
     private Double3 transparency(GeoPoint geoPoint, LightSource ls, Vector l, Vector n) {
         Vector lightDirection = l.scale(-1);
         double lightDistance = ls.getDistance(geoPoint.point);
-        var intersections = scene.geometries.findGeoIntersections(new Ray(geoPoint.point, lightDirection, n),
-                lightDistance);
-        if (intersections == null)
-            return Double3.ONE;
-
-        var ktr = Double3.ONE;
-        for (GeoPoint gp : intersections) {
-            if (Util.alignZero(gp.point.distance(geoPoint.point) - lightDistance) <= 0) {
-                ktr = ktr.product(gp.geometry.getMaterial().kT);
-                if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                    return Double3.ZERO;
-                }
-            }
-        }
-        return ktr;
+        return scene.geometries.findTransparency(new Ray(geoPoint.point, lightDirection, n), lightDistance,
+                MIN_CALC_COLOR_K);
     }
 
     /**
@@ -254,8 +249,8 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Ray constructReflectedRay(Ray ray, Vector n, Point point) {
         Vector v = ray.getDir();
-        Vector r = v.subtract(n.scale(2 * v.dotProduct(n))).normalize();
-        return new Ray(point, r, n);
+        // the reflection of a unit vector is a unit vector, the ray doesn't normalize it again
+        return new Ray(point, v.add(n, -2 * v.dotProduct(n)), n);
     }
 
     /**
@@ -272,14 +267,14 @@ public class RayTracerBasic extends RayTracerBase {
 
     /**
      * this function find the closest intersection point of the ray with the
-     * geometry
+     * geometry (the geometries shrink the ray while they search, so the hidden
+     * geometries behind the closest one are not intersected)
      * 
      * @param ray the traced ray
      * @return the closest intersection point between the ray and the geometry
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray, Double.POSITIVE_INFINITY);
-        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
 }
@@ -0,0 +1,163 @@
+package renderer;
+
+import static primitives.Util.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+import primitives.*;
+
+/**
+ * RenderContext is the state of the camera that the sampling strategies of a
+ * single rendering share (see {@link PixelBeam}, {@link AssTile},
+ * {@link EdgeBuffer}, {@link AdaptiveSampling}, {@link LensProbes}): the view
+ * plane of the image, the ray tracer and the image writer, the sampler and the
+ * randomness of the pixels, and the depth of field.<br/>
+ * It is taken from the camera when the rendering starts, so changing the
+ * camera does not change a rendering in progress. It keeps no state of its
+ * own, so it is shared by the threads of the rendering
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+class RenderContext {
+    /** amount of the pixel columns */
+    final int nX;
+    /** amount of the pixel rows */
+    final int nY;
+    /** the width of a pixel */
+    final double rx;
+    /** the height of a pixel */
+    final double ry;
+    final RayTracerBase tracer;
+    final ImageWriter imageWriter;
+    /** the sampler of the AA and the DOF samples */
+    final Sampler sampler;
+    /** the size of the AA beam of a pixel (pixelSize * pixelSize rays) */
+    final int pixelSize;
+    /** the radius of the aperture, 0 without DOF */
+    final double apertureRadius;
+    /** the amount of the DOF rays of a pixel (including the primary ray) */
+    final int numOfRays;
+    /** whether the DOF rays are scaled by the circle of confusion */
+    final boolean adaptiveDof;
+    /** the distance of the focal plane from the camera */
+    final double focalDistance;
+    /** the distance of the view plane from the camera */
+    final double distance;
+    /** the camera position */
+    final Point p0;
+
+    private final Vector vRight;
+    private final Vector vUp;
+    private final Point pc; // the center of the view plane
+    private final boolean deterministic;
+    private final long seed;
+
+    /**
+     * Constructor of the context of a rendering of an image by a camera
+     *
+     * @param camera the camera
+     * @param nX     resolution on X axis (number of pixels in row)
+     * @param nY     resolution on Y axis (number of pixels in column)
+     */
+    RenderContext(Camera camera, int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        rx = camera.getWidth() / nX;
+        ry = camera.getHeight() / nY;
+        tracer = camera.getRayTracer();
+        imageWriter = camera.getImageWriter();
+        sampler = camera.getSampler();
+        pixelSize = camera.getPixelSize();
+        numOfRays = camera.getNumOfRays();
+        apertureRadius = camera.isDepthOfField() && numOfRays != 1 ? camera.apertureRadius(nX, nY) : 0;
+        adaptiveDof = camera.isAdaptiveDepthOfField();
+        focalDistance = camera.getFocalDistance();
+        distance = camera.getDistance();
+        p0 = camera.getP0();
+        vRight = camera.getVRight();
+        vUp = camera.getVUp();
+        pc = p0.add(camera.getVTo().scale(distance));
+        deterministic = camera.isDeterministic();
+        seed = camera.getSeed();
+    }
+
+    /**
+     * The distance of the left edge of a pixel from the center of the view plane
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @return the distance on the X axis
+     */
+    double left(int col) {
+        return (col - nX / 2d) * rx;
+    }
+
+    /**
+     * The distance of the upper edge of a pixel from the center of the view plane
+     *
+     * @param row pixel's row number (pixel index in column)
+     * @return the distance on the Y axis
+     */
+    double top(int row) {
+        return (nY / 2d - row) * ry;
+    }
+
+    /**
+     * This function return the ray of a sample - from a point of the aperture
+     * through the focal point of the ray from the camera to a point of the view
+     * plane (from the camera itself without DOF).
+     *
+     * @param right the distance of the point of the view plane from its center
+     *              on the X axis
+     * @param up    the distance of the point of the view plane from its center on
+     *              the Y axis
+     * @param lensX the distance of the point of the aperture from the camera on
+     *              the X axis (0 without DOF)
+     * @param lensY the distance of the point of the aperture from the camera on
+     *              the Y axis (0 without DOF)
+     * @return the ray of the sample
+     */
+    Ray sampleRay(double right, double up, double lensX, double lensY) {
+        Point point = pc.add(vRight, right).add(vUp, up);
+        Ray ray = new Ray(p0, point.subtract(p0));
+        if (isZero(lensX) && isZero(lensY))
+            return ray;
+
+        Point focalPoint = ray.getPoint(focalDistance);
+        Point origin = p0.add(vRight, lensX).add(vUp, lensY);
+        return new Ray(origin, focalPoint.subtract(origin));
+    }
+
+    /**
+     * This function return the ray from the camera through the center of a pixel
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     * @return the ray of the center of the pixel
+     */
+    Ray pixelRay(int col, int row) {
+        return sampleRay(left(col) + rx / 2, top(row) - ry / 2, 0, 0);
+    }
+
+    /**
+     * The source of the randomness of a pixel - a generator of its own seeded by
+     * the seed of the rendering and the coordinates of the pixel in a
+     * deterministic rendering (see {@link Camera#setSeed(long)}), or the
+     * generator of the calling thread
+     *
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     * @return the random generator of the pixel
+     */
+    RandomGenerator pixelRandom(int col, int row) {
+        if (!deterministic)
+            return ThreadLocalRandom.current();
+        // hash the seed and the pixel (by the SplitMix64 finalizer), so the streams
+        // of adjacent pixels are not shifts of each other
+        long h = seed ^ ((long) row << 32 | (col & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(h ^ (h >>> 31));
+    }
+}
@@ -0,0 +1,313 @@
+package renderer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RenderSession is a single rendering of an image, started by
+ * {@link Camera#startRender()}.<br/>
+ * The session owns all the state of the rendering - its tiles, its progress
+ * counter and its job - so several cameras (with their own scenes) may render
+ * at the same time in one JVM, each on a pool of its own or all of them on a
+ * shared {@link ForkJoinPool} (see {@link Camera#setThreadPool(ForkJoinPool)}).
+ * <br/>
+ * The image is rendered by square tiles of pixels, the tiles and the pixels in
+ * each tile are visited by a {@link TraversalOrder}. The tiles are split
+ * recursively (by ranges of the order) into fork/join tasks, so idle threads steal the remaining tiles of
+ * busy ones and cheap (background) tiles and expensive (e.g. glass) tiles are
+ * balanced between the threads - and between the sessions that share the pool.
+ * A rendering may be made of several passes over the image (e.g. tracing the
+ * pixels, then refining some of them by the results of their neighbours) - a
+ * pass starts after all the tiles of the previous one are done.
+ * The threads take no lock per pixel - the only shared state is a lock-free
+ * counter of the finished pixels, updated once per tile
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class RenderSession {
+
+    /**
+     * Renderer of a single pixel
+     */
+    @FunctionalInterface
+    interface PixelRenderer {
+        /**
+         * Render a pixel
+         *
+         * @param col pixel's column number (pixel index in row)
+         * @param row pixel's row number (pixel index in column)
+         */
+        void render(int col, int row);
+    }
+
+    /**
+     * Renderer of the pixels of a tile - a renderer that shares state between
+     * the pixels of a tile (e.g. samples on their common edges)
+     */
+    @FunctionalInterface
+    interface TileRenderer {
+        /**
+         * Start rendering a tile
+         *
+         * @param col0   the first column of the tile
+         * @param row0   the first row of the tile
+         * @param colEnd the column after the last one of the tile
+         * @param rowEnd the row after the last one of the tile
+         * @return the renderer of the pixels of the tile (used by a single thread)
+         */
+        PixelRenderer startTile(int col0, int row0, int colEnd, int rowEnd);
+    }
+
+    private static final String PRINT_FORMAT = "%5.1f%%\r";
+
+    private final int nX;
+    private final int nY;
+    private final int tileSize;
+    private final int tilesInRow;
+    private final int tilesCount;
+    private final int[] tiles; // the tiles in the traversal order
+    private final int[] pixels; // the pixels of a tile in the traversal order
+    private final TileRenderer[] passes;
+
+    private final AtomicLong pixelsDone = new AtomicLong();
+    private volatile ForkJoinTask<Void> job = null;
+    private volatile boolean cancelled = false; // checked by the tasks of the tiles before each pixel
+
+    /**
+     * Constructor of a session of an image
+     *
+     * @param nX       amount of pixel columns
+     * @param nY       amount of pixel rows
+     * @param tileSize the size of the side of a tile (in pixels)
+     * @param order    the order of the tiles and of the pixels in a tile
+     * @param renderer the renderer of a pixel
+     */
+    RenderSession(int nX, int nY, int tileSize, TraversalOrder order, PixelRenderer renderer) {
+        this(nX, nY, tileSize, order, (col0, row0, colEnd, rowEnd) -> renderer);
+    }
+
+    /**
+     * Constructor of a session of an image
+     *
+     * @param nX       amount of pixel columns
+     * @param nY       amount of pixel rows
+     * @param tileSize the size of the side of a tile (in pixels)
+     * @param order    the order of the tiles and of the pixels in a tile
+     * @param passes   the renderers of the tiles of each pass, in the order of
+     *                 the passes
+     */
+    RenderSession(int nX, int nY, int tileSize, TraversalOrder order, TileRenderer... passes) {
+        this.nX = nX;
+        this.nY = nY;
+        this.tileSize = tileSize;
+        this.passes = passes;
+        tilesInRow = (nX + tileSize - 1) / tileSize;
+        int tilesInColumn = (nY + tileSize - 1) / tileSize;
+        tilesCount = tilesInRow * tilesInColumn;
+        tiles = order.order(tilesInRow, tilesInColumn);
+        pixels = order.order(tileSize, tileSize);
+    }
+
+    /**
+     * Start rendering the image by the threads of a pool (the method returns
+     * immediately)
+     *
+     * @param pool the pool of threads
+     * @return this session
+     */
+    RenderSession start(ForkJoinPool pool) {
+        job = pool.submit(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for (TileRenderer pass : passes)
+                    if (!cancelled)
+                        new Tiles(pass, 0, tilesCount).invoke();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Render the image by the calling thread (the method returns when the image
+     * is done)
+     *
+     * @return this session
+     */
+    RenderSession run() {
+        for (TileRenderer pass : passes)
+            for (int tile : tiles)
+                renderTile(pass, tile);
+        return this;
+    }
+
+    /**
+     * Getter of the amount of the pixels of the image (in all the passes)
+     *
+     * @return amount of the pixels
+     */
+    public long getPixelsCount() {
+        return (long) nX * nY * passes.length;
+    }
+
+    /**
+     * Getter of the amount of the pixels that were rendered so far (in all the
+     * passes)
+     *
+     * @return amount of the rendered pixels
+     */
+    public long getPixelsDone() {
+        return pixelsDone.get();
+    }
+
+    /**
+     * The progress of the rendering
+     *
+     * @return the part of the rendered pixels, between 0 and 1
+     */
+    public double getProgress() {
+        return (double) pixelsDone.get() / getPixelsCount();
+    }
+
+    /**
+     * Check whether the rendering is over
+     *
+     * @return true if all the pixels were rendered (or the rendering failed or
+     *         was cancelled)
+     */
+    public boolean isDone() {
+        return job == null || job.isDone();
+    }
+
+    /**
+     * Stop the rendering - the tasks of the tiles (including the ones that were
+     * already forked) stop before their next pixel, so no pixel is started after
+     * the cancellation, and the remaining tiles and passes are skipped
+     */
+    public void cancel() {
+        cancelled = true;
+        if (job != null)
+            job.cancel(true);
+    }
+
+    /**
+     * Wait for the rendering to be done
+     *
+     * @throws IllegalStateException if the waiting was interrupted or the
+     *                               rendering was cancelled
+     * @throws RuntimeException      the exception that failed the rendering
+     */
+    public void await() {
+        await(0);
+    }
+
+    /**
+     * Wait for the rendering to be done and print the progress percentage
+     *
+     * @param interval print time interval in seconds, 0 if printing is not
+     *                 required
+     * @throws IllegalStateException if the waiting was interrupted or the
+     *                               rendering was cancelled
+     * @throws RuntimeException      the exception that failed the rendering
+     */
+    public void await(double interval) {
+        if (job == null)
+            return;
+        long printInterval = (long) (interval * 1000);
+        boolean print = printInterval > 0;
+        int lastPrinted = -1;
+        try {
+            while (true) {
+                if (print) {
+                    int percentage = (int) (1000 * getProgress());
+                    if (lastPrinted != percentage) {
+                        lastPrinted = percentage;
+                        System.out.printf(PRINT_FORMAT, percentage / 10d);
+                    }
+                }
+                try {
+                    if (print)
+                        job.get(printInterval, TimeUnit.MILLISECONDS);
+                    else
+                        job.get();
+                    break;
+                } catch (TimeoutException ignore) {
+                    // print the progress again
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The waiting for the rendering was interrupted", e);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("The rendering was cancelled", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+        if (print)
+            System.out.println("100.0%");
+    }
+
+    /**
+     * Render the pixels of a tile in the traversal order and count them as done
+     * (unless the rendering was cancelled in the middle of the tile)
+     *
+     * @param renderer the renderer of the tiles of the pass
+     * @param tile     index of the tile
+     */
+    private void renderTile(TileRenderer renderer, int tile) {
+        int col0 = (tile % tilesInRow) * tileSize;
+        int row0 = (tile / tilesInRow) * tileSize;
+        int colEnd = Math.min(col0 + tileSize, nX);
+        int rowEnd = Math.min(row0 + tileSize, nY);
+        PixelRenderer pixelRenderer = renderer.startTile(col0, row0, colEnd, rowEnd);
+        for (int pixel : pixels) {
+            if (cancelled)
+                return;
+            int col = col0 + pixel % tileSize, row = row0 + pixel / tileSize;
+            if (col < colEnd && row < rowEnd) // the tiles of the right and bottom edges may be partial
+                pixelRenderer.render(col, row);
+        }
+        pixelsDone.addAndGet((long) (colEnd - col0) * (rowEnd - row0));
+    }
+
+    /**
+     * Work unit - a range of tiles of a pass (in the traversal order), split in halves
+     * until a single tile is left
+     */
+    private class Tiles extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TileRenderer renderer;
+        private final int first;
+        private final int end;
+
+        /**
+         * @param renderer the renderer of the tiles of the pass
+         * @param first    position of the first tile in the order (included)
+         * @param end      position of the last tile in the order (excluded)
+         */
+        Tiles(TileRenderer renderer, int first, int end) {
+            this.renderer = renderer;
+            this.first = first;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled)
+                return;
+            if (end - first > 1) {
+                int middle = (first + end) >>> 1;
+                invokeAll(new Tiles(renderer, first, middle), new Tiles(renderer, middle, end));
+            } else
+                renderTile(renderer, tiles[first]);
+        }
+    }
+}
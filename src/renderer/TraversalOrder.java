@@ -0,0 +1,128 @@
+package renderer;
+
+/**
+ * The order in which the cells of a rectangular grid (the tiles of an image,
+ * or the pixels of a tile) are rendered.<br/>
+ * Rays of nearby pixels usually hit the same geometries and walk the same
+ * nodes of the acceleration structure, so an order that keeps consecutive
+ * cells close to each other in both axes (unlike the rows of the scanline
+ * order) keeps those nodes in the caches of the processor - and, since the
+ * threads split the tiles by ranges of the order, gives each thread a compact
+ * region of the image
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public enum TraversalOrder {
+    /**
+     * Row after row, from left to right
+     */
+    SCANLINE,
+    /**
+     * The Z-order (Morton) curve - the cells are ordered by interleaving the bits
+     * of their column and row
+     */
+    MORTON,
+    /**
+     * The Hilbert curve - like {@link #MORTON} in quadrants, but each cell is a
+     * neighbour of the previous one
+     */
+    HILBERT,
+    /**
+     * A square spiral from the center outwards, so the middle of the image
+     * (usually its subject) is rendered first
+     */
+    SPIRAL;
+
+    /**
+     * Calculate the order of the cells of a grid
+     *
+     * @param width  amount of the columns of the grid
+     * @param height amount of the rows of the grid
+     * @return the indices of the cells (row * width + column) in the order, each
+     *         cell appears once
+     */
+    public int[] order(int width, int height) {
+        int count = width * height;
+        int[] cells = new int[count];
+        int next = 0;
+        switch (this) {
+            case SCANLINE -> {
+                for (int cell = 0; cell < count; ++cell)
+                    cells[cell] = cell;
+                return cells;
+            }
+            case MORTON, HILBERT -> {
+                // walk the curve of the enclosing square of 2^k cells and skip the
+                // cells that are out of the grid
+                int side = Math.max(2, Integer.highestOneBit(Math.max(width, height) - 1) << 1);
+                for (int d = 0; next < count; ++d) {
+                    long xy = this == MORTON ? morton(d) : hilbert(side, d);
+                    int x = (int) (xy >>> 32), y = (int) xy;
+                    if (x < width && y < height)
+                        cells[next++] = y * width + x;
+                }
+            }
+            case SPIRAL -> {
+                // walk segments of lengths 1, 1, 2, 2, 3, 3... turning right after each
+                int x = (width - 1) / 2, y = (height - 1) / 2;
+                int dx = 1, dy = 0;
+                for (int length = 1; next < count; ++length)
+                    for (int segment = 0; segment < 2; ++segment) {
+                        for (int step = 0; step < length; ++step) {
+                            if (x >= 0 && x < width && y >= 0 && y < height)
+                                cells[next++] = y * width + x;
+                            x += dx;
+                            y += dy;
+                        }
+                        int turn = dx;
+                        dx = -dy;
+                        dy = turn;
+                    }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Find the cell of a position on the Z-order curve
+     *
+     * @param d the position on the curve
+     * @return the column of the cell in the high half and its row in the low half
+     */
+    private static long morton(int d) {
+        int x = 0, y = 0;
+        for (int bit = 0; bit < 16; ++bit) {
+            x |= ((d >>> (2 * bit)) & 1) << bit;
+            y |= ((d >>> (2 * bit + 1)) & 1) << bit;
+        }
+        return (long) x << 32 | y;
+    }
+
+    /**
+     * Find the cell of a position on the Hilbert curve of a square
+     *
+     * @param side the side of the square, a power of 2
+     * @param d    the position on the curve
+     * @return the column of the cell in the high half and its row in the low half
+     */
+    private static long hilbert(int side, int d) {
+        int x = 0, y = 0;
+        for (int s = 1; s < side; s <<= 1) {
+            int rx = 1 & (d >>> 1);
+            int ry = 1 & (d ^ rx);
+            if (ry == 0) { // rotate the quadrant
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+            x += s * rx;
+            y += s * ry;
+            d >>>= 2;
+        }
+        return (long) x << 32 | y;
+    }
+}
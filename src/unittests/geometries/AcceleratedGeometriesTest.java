@@ -0,0 +1,405 @@
+package unittests.geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import primitives.*;
+
+/**
+ * Testing the accelerated bundles of geometries - each one must find exactly
+ * what the flat list of the same geometries finds
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class AcceleratedGeometriesTest {
+
+    /**
+     * a bundle with a BVH
+     */
+    private static Geometries bvh(Intersectable... geometries) {
+        return new Geometries(geometries).setBVH(true);
+    }
+
+    /**
+     * a bundle with a uniform grid
+     */
+    private static Geometries grid(Intersectable... geometries) {
+        return new GridGeometries(geometries);
+    }
+
+    /**
+     * a scene of random spheres and triangles in the box [-50,50]^3 (and a plane
+     * below it, if required)
+     */
+    private static Intersectable[] scene(int count, boolean plane) {
+        Random random = new Random(1);
+        Intersectable[] geometries = new Intersectable[plane ? count + 1 : count];
+        for (int i = 0; i < count; ++i) {
+            Point center = randomPoint(random, 50);
+            geometries[i] = i % 2 == 0 ? new Sphere(center, 1 + 4 * random.nextDouble())
+                    : new Triangle(center, center.add(randomVector(random, 5)), center.add(randomVector(random, 5)));
+        }
+        if (plane)
+            geometries[count] = new Plane(new Vector(0, 1, 0), new Point(0, -60, 0));
+        return geometries;
+    }
+
+    /**
+     * a random point in the box [-size,size]^3
+     */
+    private static Point randomPoint(Random random, double size) {
+        return new Point(size * (2 * random.nextDouble() - 1), size * (2 * random.nextDouble() - 1),
+                size * (2 * random.nextDouble() - 1));
+    }
+
+    /**
+     * a random vector in the box [-size,size]^3 (not zero)
+     */
+    private static Vector randomVector(Random random, double size) {
+        Vector vector;
+        do
+            vector = Vector.tryOf(size * (2 * random.nextDouble() - 1), size * (2 * random.nextDouble() - 1),
+                    size * (2 * random.nextDouble() - 1));
+        while (vector == null);
+        return vector;
+    }
+
+    /**
+     * the intersection points of a ray, sorted by their distance
+     */
+    private static List<Point> intersections(Geometries geometries, Ray ray, double max) {
+        var points = geometries.findGeoIntersections(ray, max);
+        return points == null ? null
+                : points.stream().map(gp -> gp.point)
+                        .sorted(Comparator.comparingDouble(p -> p.distanceSquared(ray.getP0()))).toList();
+    }
+
+    /**
+     * check that an accelerated bundle and the flat list of the same geometries
+     * find the same intersections of the rays
+     *
+     * @param message  the message of a failure
+     * @param bundle   the accelerated bundle of geometries
+     * @param geometries the geometries
+     * @param rays     the rays
+     * @param max      the maximum distance of the rays
+     */
+    private static void assertSameIntersections(String message, Function<Intersectable[], Geometries> bundle,
+            Intersectable[] geometries, List<Ray> rays, double max) {
+        Geometries flat = new Geometries(geometries);
+        Geometries accelerated = bundle.apply(geometries);
+        for (Ray ray : rays)
+            assertEquals(intersections(flat, ray, max), intersections(accelerated, ray, max), message + " " + ray);
+    }
+
+    /**
+     * random rays from the box [-80,80]^3 towards the box [-50,50]^3, or from a
+     * given point to random directions
+     */
+    private static List<Ray> rays(Random random, int count, Point origin) {
+        Ray[] rays = new Ray[count];
+        for (int i = 0; i < count; ++i) {
+            Point p0 = origin != null ? origin : randomPoint(random, 80);
+            Vector dir;
+            do
+                dir = randomPoint(random, 50).trySubtract(p0);
+            while (dir == null);
+            rays[i] = new Ray(p0, dir);
+        }
+        return List.of(rays);
+    }
+
+    /**
+     * rays parallel to the axes (to slabs of the boxes), through a grid of points
+     * of the scene
+     */
+    private static List<Ray> axisRays() {
+        Vector[] axes = { new Vector(1, 0, 0), new Vector(-1, 0, 0), new Vector(0, 1, 0), new Vector(0, -1, 0),
+                new Vector(0, 0, 1), new Vector(0, 0, -1) };
+        Ray[] rays = new Ray[axes.length * 11 * 11];
+        int r = 0;
+        for (Vector axis : axes)
+            for (int i = -5; i <= 5; ++i)
+                for (int j = -5; j <= 5; ++j) {
+                    // the two coordinates across the axis are on a grid, the one along it is
+                    // out of the scene
+                    double a = 10 * i + 0.5, b = 10 * j + 0.5, c = -80 * (axis.getX() + axis.getY() + axis.getZ());
+                    Point p0 = axis.getX() != 0 ? new Point(c, a, b)
+                            : axis.getY() != 0 ? new Point(a, c, b) : new Point(a, b, c);
+                    rays[r++] = new Ray(p0, axis);
+                }
+        return List.of(rays);
+    }
+
+    /**
+     * check the intersections of an accelerated bundle with the flat list
+     *
+     * @param bundle the accelerated bundle of the geometries
+     */
+    private static void checkFindIntersections(Function<Intersectable[], Geometries> bundle) {
+        Random random = new Random(2);
+        Intersectable[] scene = scene(400, true);
+        Ray ray = new Ray(new Point(0, 0, -100), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Random rays through the scene
+        assertSameIntersections("TC01: ERROR: Wrong intersections of", bundle, scene, rays(random, 2000, null),
+                Double.POSITIVE_INFINITY);
+
+        // TC02: Random rays with a maximum distance (ending inside the scene)
+        assertSameIntersections("TC02: ERROR: Wrong intersections of", bundle, scene, rays(random, 2000, null), 90);
+
+        // TC03: Rays that miss the whole scene (pointing away from it)
+        Ray away = new Ray(new Point(0, 100, 0), new Vector(0.1, 1, 0.2));
+        assertNull(bundle.apply(scene(400, false)).findGeoIntersections(away), "TC03: ERROR: The ray misses");
+        assertSameIntersections("TC03: ERROR: Wrong intersections of", bundle, scene, List.of(away),
+                Double.POSITIVE_INFINITY);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Rays starting inside the box of the scene
+        assertSameIntersections("TC11: ERROR: Wrong intersections of", bundle, scene,
+                rays(random, 1000, new Point(1, 2, 3)), Double.POSITIVE_INFINITY);
+
+        // TC12: Rays parallel to the slabs of the boxes
+        assertSameIntersections("TC12: ERROR: Wrong intersections of", bundle, scene(400, false), axisRays(),
+                Double.POSITIVE_INFINITY);
+
+        // TC13: An empty bundle
+        assertNull(bundle.apply(new Intersectable[0]).findGeoIntersections(ray), "TC13: ERROR: The bundle is empty");
+
+        // TC14: A single geometry
+        Intersectable[] single = { new Sphere(new Point(0, 0, 0), 10) };
+        assertSameIntersections("TC14: ERROR: Wrong intersections of", bundle, single,
+                List.of(ray, new Ray(new Point(0, 0, 0), new Vector(1, 1, 1)), away), Double.POSITIVE_INFINITY);
+        assertEquals(2, bundle.apply(single).findGeoIntersections(ray).size(), "TC14: ERROR: Wrong amount of points");
+
+        // TC15: Only an unbounded geometry
+        Intersectable[] unbounded = { new Plane(new Vector(0, 0, 1), new Point(0, 0, 0)) };
+        assertSameIntersections("TC15: ERROR: Wrong intersections of", bundle, unbounded, List.of(ray, away),
+                Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * check the closest intersections of a bundle with the closest points of the
+     * intersections of the flat list
+     *
+     * @param bundle the bundle of the geometries
+     */
+    private static void checkFindClosest(Function<Intersectable[], Geometries> bundle) {
+        Random random = new Random(4);
+        Intersectable[] scene = scene(400, true);
+        Geometries flat = new Geometries(scene);
+        Geometries geometries = bundle.apply(scene);
+        Ray ray = new Ray(new Point(0, 0, -100), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Random rays through the scene, with and without a maximum distance
+        // TC02: Rays starting inside the box of the scene
+        // TC03: Rays parallel to the slabs of the boxes
+        String[] messages = { "TC01", "TC01", "TC02", "TC03" };
+        double[] max = { Double.POSITIVE_INFINITY, 90, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY };
+        List<List<Ray>> rays = List.of(rays(random, 2000, null), rays(random, 2000, null),
+                rays(random, 1000, new Point(1, 2, 3)), axisRays());
+        for (int i = 0; i < messages.length; ++i)
+            for (Ray r : rays.get(i)) {
+                List<Point> points = intersections(flat, r, max[i]);
+                var closest = geometries.findClosestGeoIntersection(r, max[i]);
+                if (points == null)
+                    assertNull(closest, messages[i] + ": ERROR: There is no intersection of " + r);
+                else {
+                    assertNotNull(closest, messages[i] + ": ERROR: Missing the intersection of " + r);
+                    assertEquals(points.get(0), closest.point, messages[i] + ": ERROR: Wrong closest point of " + r);
+                    assertEquals(r.getP0().distance(closest.point), closest.t, 1e-9,
+                            messages[i] + ": ERROR: Wrong distance of the closest point of " + r);
+                }
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: An empty bundle
+        assertNull(bundle.apply(new Intersectable[0]).findClosestGeoIntersection(ray),
+                "TC11: ERROR: The bundle is empty");
+
+        // TC12: A single geometry, from outside and from inside
+        Geometries single = bundle.apply(new Intersectable[] { new Sphere(new Point(0, 0, 0), 10) });
+        assertEquals(new Point(0, 0, -10), single.findClosestGeoIntersection(ray).point,
+                "TC12: ERROR: Wrong closest point");
+        assertEquals(new Point(0, 0, 10),
+                single.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).point,
+                "TC12: ERROR: Wrong closest point from inside");
+
+        // TC13: The closest geometry is beyond the maximum distance
+        assertNull(single.findClosestGeoIntersection(ray, 89), "TC13: ERROR: The geometry is too far");
+    }
+
+    /**
+     * check the transparency along rays through a bundle with the product of the
+     * transparency of all the intersections of the flat list
+     *
+     * @param bundle the bundle of the geometries
+     */
+    private static void checkFindTransparency(Function<Intersectable[], Geometries> bundle) {
+        Random random = new Random(5);
+        Intersectable[] scene = scene(400, true);
+        double[] kT = { 0, 0.3, 0.9, 1 }; // opaque, transparent and fully transparent geometries
+        for (Intersectable geometry : scene)
+            ((Geometry) geometry).setMaterial(new Material().setKt(kT[random.nextInt(kT.length)]));
+        Geometries flat = new Geometries(scene);
+        Geometries geometries = bundle.apply(scene);
+        double minK = 0.001;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Random rays through the scene, with and without a maximum distance
+        // TC02: Rays starting inside the box of the scene
+        // TC03: Rays parallel to the slabs of the boxes
+        String[] messages = { "TC01", "TC01", "TC02", "TC03" };
+        double[] max = { Double.POSITIVE_INFINITY, 90, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY };
+        List<List<Ray>> rays = List.of(rays(random, 2000, null), rays(random, 2000, null),
+                rays(random, 1000, new Point(1, 2, 3)), axisRays());
+        for (int i = 0; i < messages.length; ++i)
+            for (Ray r : rays.get(i)) {
+                Double3 expected = Double3.ONE;
+                var points = flat.findGeoIntersections(r, max[i]);
+                if (points != null)
+                    for (var gp : points)
+                        expected = expected.product(gp.geometry.getMaterial().kT);
+                if (expected.lowerThan(minK))
+                    expected = Double3.ZERO;
+                assertEquals(expected, geometries.findTransparency(r, max[i], minK),
+                        messages[i] + ": ERROR: Wrong transparency of " + r);
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: An empty bundle
+        Ray ray = new Ray(new Point(0, 0, -100), new Vector(0, 0, 1));
+        assertEquals(Double3.ONE, bundle.apply(new Intersectable[0]).findTransparency(ray, 1000, minK),
+                "TC11: ERROR: The bundle is empty");
+
+        // TC12: A single transparent geometry (hit twice)
+        Geometries single = bundle.apply(new Intersectable[] {
+                new Sphere(new Point(0, 0, 0), 10).setMaterial(new Material().setKt(0.5)) });
+        assertEquals(new Double3(0.25), single.findTransparency(ray, 1000, minK), "TC12: ERROR: Wrong transparency");
+
+        // TC13: The geometry is beyond the maximum distance
+        assertEquals(Double3.ONE, single.findTransparency(ray, 89, minK), "TC13: ERROR: The geometry is too far");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(Ray, double, double)}
+     * - of the flat list, with a BVH and with a uniform grid.
+     */
+    @Test
+    void testFindTransparency() {
+        checkFindTransparency(Geometries::new);
+        checkFindTransparency(AcceleratedGeometriesTest::bvh);
+        checkFindTransparency(AcceleratedGeometriesTest::grid);
+
+        // TC21: The traversal stops at a geometry that blocks the ray, even if it
+        // does not return the ZERO constant
+        int[] calls = { 0 };
+        Intersectable blocking = new Intersectable() {
+            @Override
+            protected BoundingBox calcBoundingBox() {
+                return null;
+            }
+
+            @Override
+            protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+                return null;
+            }
+
+            @Override
+            protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+                return ktr.product(new Double3(0));
+            }
+        };
+        Intersectable counting = new Intersectable() {
+            @Override
+            protected BoundingBox calcBoundingBox() {
+                return null;
+            }
+
+            @Override
+            protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+                ++calls[0];
+                return null;
+            }
+        };
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+        assertEquals(Double3.ZERO, new Geometries(blocking, counting).findTransparency(ray, 100, 0.001),
+                "TC21: ERROR: The ray is blocked");
+        assertEquals(0, calls[0], "TC21: ERROR: The traversal did not stop at the blocking geometry");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestGeoIntersection(Ray, double)}
+     * - of the flat list, with a BVH and with a uniform grid.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        checkFindClosest(Geometries::new);
+        checkFindClosest(AcceleratedGeometriesTest::bvh);
+        checkFindClosest(AcceleratedGeometriesTest::grid);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findGeoIntersections(Ray)}
+     * with a BVH ({@link geometries.Geometries#setBVH(boolean)}).
+     */
+    @Test
+    void testFindIntersectionsBVH() {
+        checkFindIntersections(AcceleratedGeometriesTest::bvh);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#add(Intersectable...)}.
+     */
+    @Test
+    void testAddNested() {
+        Ray ray = new Ray(new Point(0, 0, -100), new Vector(0, 0, 1));
+        for (Function<Intersectable[], Geometries> bundle : List.<Function<Intersectable[], Geometries>>of(
+                Geometries::new, AcceleratedGeometriesTest::bvh, AcceleratedGeometriesTest::grid)) {
+            Geometries nested = new Geometries(new Sphere(new Point(50, 50, 0), 5));
+            Geometries scene = bundle.apply(new Intersectable[] { nested, new Sphere(new Point(-50, -50, 0), 5) });
+            assertNull(scene.findGeoIntersections(ray), "ERROR: The ray misses the scene");
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: A geometry added to a nested bundle after its parent was queried
+            // (with the box and the acceleration of the parent) is found by the parent
+            nested.add(new Sphere(new Point(0, 0, 0), 5));
+            var intersections = scene.findGeoIntersections(ray);
+            assertNotNull(intersections, "TC01: ERROR: The new geometry is missed");
+            assertEquals(2, intersections.size(), "TC01: ERROR: Wrong number of intersections");
+            assertEquals(-5, scene.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY).point.getZ(), 1e-10,
+                    "TC01: ERROR: The closest hit is missed");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.GridGeometries#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersectionsGrid() {
+        checkFindIntersections(AcceleratedGeometriesTest::grid);
+
+        // =============== Boundary Values Tests ==================
+        // TC21: A geometry spread over many cells is found once per ray (mailbox)
+        Intersectable[] spread = { new Sphere(new Point(0, 0, 0), 40), new Sphere(new Point(45, 45, 45), 1),
+                new Sphere(new Point(-45, -45, -45), 1) };
+        Ray ray = new Ray(new Point(-100, 1, 2), new Vector(1, 0, 0));
+        assertEquals(2, grid(spread).findGeoIntersections(ray).size(), "TC21: ERROR: Wrong amount of points");
+
+        // TC22: A flat scene (the grid has a single cell on an axis)
+        Intersectable[] flat = new Intersectable[50];
+        for (int i = 0; i < flat.length; ++i)
+            flat[i] = new Triangle(new Point(i, 0, 0), new Point(i + 1, 0, 0), new Point(i, 1, 0));
+        assertSameIntersections("TC22: ERROR: Wrong intersections of", AcceleratedGeometriesTest::grid, flat,
+                rays(new Random(3), 500, new Point(25, 0.5, 10)), Double.POSITIVE_INFINITY);
+    }
+}
@@ -1,7 +1,9 @@
 package unittests.geometries;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -36,14 +38,12 @@ public class CylinderTest {
 
                 // ========== Boundary Values Tests ==================
                 // TC11: A test in the center base of the top of the cylinder
-                assertThrows(IllegalArgumentException.class, () -> {
-                        cylinder.getNormal(new Point(1, 0, 5));
-                }, "TC11: ERROR: A test on the top of the cylinder");
+                assertEquals("TC11: ERROR: A test on the top of the cylinder", new Vector(0, 0, 1),
+                                cylinder.getNormal(new Point(1, 0, 5)));
 
                 // TC12: A test in the center base of the bottom of the cylinder
-                assertThrows(IllegalArgumentException.class, () -> {
-                        cylinder.getNormal(new Point(1, 0, 0));
-                }, "TC12: ERROR: A test on the bottom of the cylinder");
+                assertEquals("TC12: ERROR: A test on the bottom of the cylinder", new Vector(0, 0, 1),
+                                cylinder.getNormal(new Point(1, 0, 0)));
 
                 // ***** group of tests of touching points between the cylinder surround and the
                 // bottom base *****
@@ -57,4 +57,41 @@ public class CylinderTest {
                 assertEquals("TC14: ERROR: Normal test on the tube of the cylinder", new Vector(1, 0, 0),
                                 cylinder.getNormal(new Point(3, 0, 5)));
         }
+
+        /**
+         * Test method for
+         * {@link geometries.Cylinder#findIntersections(primitives.Ray)}.
+         */
+        @Test
+        void testFindIntersections() {
+                Cylinder cylinder = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: Ray crosses the side twice
+                assertEquals("TC01: ERROR: Ray crosses the side", List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                                cylinder.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))));
+
+                // TC02: Ray crosses both bases
+                assertEquals("TC02: ERROR: Ray crosses both bases",
+                                List.of(new Point(0.5, 0, 0), new Point(0.5, 0, 2)),
+                                cylinder.findIntersections(new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))));
+
+                // TC03: Ray crosses the bottom base and the side
+                assertEquals("TC03: ERROR: Ray crosses a base and the side",
+                                List.of(new Point(0.5, 0, 0), new Point(1, 0, 0.5)),
+                                cylinder.findIntersections(new Ray(new Point(0, 0, -0.5), new Vector(1, 0, 1))));
+
+                // TC04: Ray passes above the cylinder (crosses the tube only)
+                assertNull("TC04: ERROR: Ray passes above the cylinder",
+                                cylinder.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))));
+
+                // TC05: Ray starts inside the cylinder
+                assertEquals("TC05: ERROR: Ray starts inside the cylinder", List.of(new Point(0, 0, 2)),
+                                cylinder.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))));
+
+                // ========== Boundary Values Tests ==================
+                // TC11: Ray is in the plane of the bottom base
+                assertNull("TC11: ERROR: Ray in the base plane",
+                                cylinder.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 0))));
+        }
 }
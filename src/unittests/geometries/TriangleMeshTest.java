@@ -0,0 +1,120 @@
+package unittests.geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import geometries.*;
+import primitives.*;
+
+/**
+ * Testing TriangleMesh
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class TriangleMeshTest {
+
+    /**
+     * a unit square in the plane z=0 made of two triangles (sharing an edge
+     * on the diagonal)
+     */
+    private final TriangleMesh square = new TriangleMesh(new Point[] { new Point(0, 0, 0), new Point(1, 0, 0),
+            new Point(1, 1, 0), new Point(0, 1, 0) }, new int[] { 0, 1, 2, 0, 2, 3 });
+
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertEquals(2, square.getFacesCount(), "ERROR: TC01 wrong amount of faces");
+
+        // TC02: Faces are not triples
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[] { 0, 0, 0, 1, 0, 0, 0, 1, 0 }, new int[] { 0, 1 }),
+                "ERROR: TC02 faces are not triples");
+
+        // TC03: A face refers to a vertex that does not exist
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[] { 0, 0, 0, 1, 0, 0, 0, 1, 0 }, new int[] { 0, 1, 3 }),
+                "ERROR: TC03 a face refers to a vertex that does not exist");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(primitives.Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A point on a face
+        assertEquals(new Vector(0, 0, 1), square.getNormal(new Point(0.25, 0.5, 0)),
+                "ERROR: TC01 normal result is incorrect");
+
+        // TC02: A point that is not on the mesh
+        assertThrows(IllegalArgumentException.class, () -> square.getNormal(new Point(2, 2, 0)),
+                "ERROR: TC02 the point is not on the mesh");
+    }
+
+    @Test
+    void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray intersects a face
+        Ray ray = new Ray(new Point(0.75, 0.25, 1), new Vector(0, 0, -1));
+        var result = square.findGeoIntersections(ray);
+        assertEquals(1, result.size(), "TC01: ERROR: Wrong number of points");
+        assertEquals(new Point(0.75, 0.25, 0), result.get(0).point, "TC01: ERROR: Wrong intersection point");
+        assertEquals(new Vector(0, 0, 1), result.get(0).getNormal(), "TC01: ERROR: Wrong normal of the point");
+
+        // TC02: Ray misses the mesh
+        ray = new Ray(new Point(1.5, 0.5, 1), new Vector(0, 0, -1));
+        assertNull(square.findGeoIntersections(ray), "TC02: ERROR: There should be no intersections points");
+
+        // TC03: The mesh is beyond the maximum distance
+        ray = new Ray(new Point(0.75, 0.25, 1), new Vector(0, 0, -1));
+        assertNull(square.findGeoIntersections(ray, 0.5), "TC03: ERROR: The mesh is too far");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray hits the shared edge - there is no crack, and the point is
+        // listed once (not once per face)
+        ray = new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1));
+        assertEquals(1, square.findGeoIntersections(ray).size(), "TC11: ERROR: The shared edge must be hit once");
+        assertEquals(new Point(0.5, 0.5, 0), square.findClosestGeoIntersection(ray).point,
+                "TC11: ERROR: Wrong closest intersection point");
+
+        // TC12: Ray is parallel to the mesh
+        ray = new Ray(new Point(0.5, 0.5, 1), new Vector(1, 0, 0));
+        assertNull(square.findGeoIntersections(ray), "TC12: ERROR: Parallel ray can't intersect");
+
+        // TC13: Ray hits a vertex that is shared by all the faces of a fan
+        TriangleMesh fan = new TriangleMesh(new Point[] { new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(0, 1, 0), new Point(-1, 0, 0), new Point(0, -1, 0) },
+                new int[] { 0, 1, 2, 0, 2, 3, 0, 3, 4, 0, 4, 1 });
+        ray = new Ray(new Point(0, 0, 1), new Vector(0, 0, -1));
+        assertEquals(1, fan.findGeoIntersections(ray).size(), "TC13: ERROR: The shared vertex must be hit once");
+
+        // TC14: Ray hits the shared edge obliquely - once
+        ray = new Ray(new Point(0.2, 0.7, 1), new Vector(0.3, -0.2, -1));
+        result = square.findGeoIntersections(ray);
+        assertEquals(1, result.size(), "TC14: ERROR: The shared edge must be hit once");
+        assertEquals(new Point(0.5, 0.5, 0), result.get(0).point, "TC14: ERROR: Wrong intersection point");
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.Intersectable#findTransparency(Ray, double, double)} of a
+     * mesh.
+     */
+    @Test
+    void testFindTransparency() {
+        TriangleMesh glass = new TriangleMesh(new Point[] { new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(1, 1, 0), new Point(0, 1, 0) }, new int[] { 0, 1, 2, 0, 2, 3 });
+        glass.setMaterial(new Material().setKt(0.5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through a face
+        Ray ray = new Ray(new Point(0.75, 0.25, 1), new Vector(0, 0, -1));
+        assertEquals(new Double3(0.5), glass.findTransparency(ray, 10, 0.001), "TC01: ERROR: Wrong transparency");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through the shared edge - the transparency is applied once
+        ray = new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1));
+        assertEquals(new Double3(0.5), glass.findTransparency(ray, 10, 0.001), "TC11: ERROR: Wrong transparency");
+    }
+}
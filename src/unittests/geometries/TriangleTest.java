@@ -1,6 +1,5 @@
 package unittests.geometries;
 
-import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
@@ -42,13 +41,13 @@ public class TriangleTest {
 
                 // TC02: a simple case of a ray that does not intersect the triangle against the
                 // edge
-                assertNull("TC02: ERROR: have to be no intersection",
-                                triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, -1))));
+                assertNull(triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, -1))),
+                                "TC02: ERROR: have to be no intersection");
 
                 // TC03: a simple case of a ray that does not intersect the triangle against the
                 // vertex
-                assertNull("TC03: ERROR: have to be no intersection",
-                                triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, 0))));
+                assertNull(triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, 0))),
+                                "TC03: ERROR: have to be no intersection");
 
                 // TC04: a simple case of a ray that intersects the triangle with max distance
                 var intersection = triangle
@@ -62,17 +61,39 @@ public class TriangleTest {
 
                 // =============== Boundary Values Tests ==================
                 // TC11: a ray that intersects the triangle on the vertex
-                assertNull("TC11: ERROR: have to be no intersection on the vertex",
-                                triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, 0.5))));
+                assertNull(triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, 0.5))),
+                                "TC11: ERROR: have to be no intersection on the vertex");
 
                 // TC12: a ray that intersects the triangle on the edge
-                assertNull("TC12: ERROR: have to be no intersection on the edge",
-                                triangle.findIntersections(
-                                                new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, 0.25))));
+                assertNull(triangle.findIntersections(
+                                                new Ray(new Point(0, 0.5, 0), new Vector(0.23, 0.14, 0.25))),
+                                "TC12: ERROR: have to be no intersection on the edge");
 
                 // TC13: a ray on the continuance of the edge\
-                assertNull("TC13: ERROR: have to be no intersection on the edge",
-                                triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0, 2, 1))));
+                assertNull(triangle.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(0, 2, 1))),
+                                "TC13: ERROR: have to be no intersection on the edge");
 
         }
+
+        /**
+         * Test method for
+         * {@link geometries.Triangle#findGeoIntersections(primitives.Ray)} of two
+         * triangles that share an edge.
+         */
+        @Test
+        void testSharedEdge() {
+                // the edge from (0,0,0) to (1,1,0) is the side a = 0 of the first triangle
+                // and the side b = 0 of the second one
+                Triangle first = new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(1, 1, 0));
+                Triangle second = new Triangle(new Point(0, 0, 0), new Point(1, 1, 0), new Point(0, 1, 0));
+
+                // =============== Boundary Values Tests ==================
+                // TC11: a ray a hair off the shared edge hits one of the triangles (no crack)
+                for (double offset : new double[] { 1e-13, -1e-13 }) {
+                        Ray ray = new Ray(new Point(0.5 - offset, 0.5 + offset, 1), new Vector(0, 0, -1));
+                        int hits = (first.findGeoIntersections(ray) == null ? 0 : 1)
+                                        + (second.findGeoIntersections(ray) == null ? 0 : 1);
+                        assertEquals(1, hits, "TC11: ERROR: a ray next to the shared edge must hit one triangle");
+                }
+        }
 }
@@ -1,8 +1,11 @@
 package unittests.geometries;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import geometries.*;
 import primitives.*;
 
@@ -29,4 +32,38 @@ public class TubeTest {
         assertEquals("TC01: ERROR:  A Right angle with the ray source point", tube.getNormal(new Point(1, 0, 0)),
                 new Vector(1, 0, 0));
     }
+
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the tube (2 points)
+        assertEquals("TC01: ERROR: Ray crosses the tube", List.of(new Point(-1, 0, 0.5), new Point(1, 0, 0.5)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 0.5), new Vector(1, 0, 0))));
+
+        // TC02: Ray starts inside the tube (1 point)
+        assertEquals("TC02: ERROR: Ray starts inside the tube", List.of(new Point(1, 0, 1)),
+                tube.findIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 0, 1))));
+
+        // TC03: Ray misses the tube (0 points)
+        assertNull("TC03: ERROR: Ray misses the tube",
+                tube.findIntersections(new Ray(new Point(-2, 2, 0), new Vector(1, 0, 0))));
+
+        // TC04: The tube is beyond the maximum distance (0 points)
+        assertNull("TC04: ERROR: The tube is too far",
+                tube.findGeoIntersections(new Ray(new Point(-2, 0, 0.5), new Vector(1, 0, 0)), 0.5));
+
+        // ========== Boundary Values Tests ==================
+        // TC11: Ray is parallel to the axis (0 points)
+        assertNull("TC11: ERROR: Ray is parallel to the axis",
+                tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))));
+
+        // TC12: Ray is tangent to the tube (0 points)
+        assertNull("TC12: ERROR: Ray is tangent to the tube",
+                tube.findIntersections(new Ray(new Point(-2, 1, 0), new Vector(1, 0, 0))));
+    }
 }
@@ -0,0 +1,58 @@
+package unittests.primitives;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.*;
+
+/**
+ * Testing ColorAccumulator
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class ColorAccumulatorTest {
+
+    /**
+     * Test method for {@link primitives.ColorAccumulator#add(primitives.Color)}.
+     */
+    @Test
+    void testAdd() {
+        ColorAccumulator accumulator = new ColorAccumulator().add(new Color(10, 20, 30)).add(new Color(30, 20, 10));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The sum, the average and the amount of the added colors
+        assertEquals(2, accumulator.getCount(), "ERROR: TC01 wrong amount of colors");
+        assertEquals(new Color(40, 40, 40), accumulator.getSum(), "ERROR: TC01 wrong sum");
+        assertEquals(new Color(20, 20, 20), accumulator.getAverage(), "ERROR: TC01 wrong average");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Nothing was added
+        ColorAccumulator empty = new ColorAccumulator();
+        assertEquals(0, empty.getCount(), "ERROR: TC11 wrong amount of colors");
+        assertSame(Color.BLACK, empty.getSum(), "ERROR: TC11 the sum is not black");
+        assertSame(Color.BLACK, empty.getAverage(), "ERROR: TC11 the average is not black");
+    }
+
+    /**
+     * Test method for
+     * {@link primitives.ColorAccumulator#add(primitives.Color, primitives.Double3)}.
+     */
+    @Test
+    void testAddScaled() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The color is scaled by the factor of each component
+        ColorAccumulator accumulator = new ColorAccumulator().add(new Color(100, 100, 100), new Double3(0.5, 1, 2));
+        assertEquals(new Color(50, 100, 200), accumulator.getSum(), "ERROR: TC01 wrong sum");
+        assertEquals(1, accumulator.getCount(), "ERROR: TC01 wrong amount of colors");
+        // TC02: A negative factor
+        assertThrows(IllegalArgumentException.class,
+                () -> new ColorAccumulator().add(new Color(100, 100, 100), new Double3(1, -1, 1)),
+                "ERROR: TC02 a negative factor is accepted");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A factor of zero
+        assertEquals(Color.BLACK, new ColorAccumulator().add(new Color(100, 100, 100), Double3.ZERO).getSum(),
+                "ERROR: TC11 wrong sum");
+    }
+}
@@ -1,6 +1,7 @@
 package unittests.primitives;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -40,6 +41,20 @@ public class PointTest {
         });
     }
 
+    /**
+     * Test method for {@link primitives.Point#trySubtract(primitives.Point)}.
+     */
+    @Test
+    void testTrySubtract() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A simple case of subtract
+        assertEquals("ERROR: trySubtract result is incorrect", new Vector(1, 1, 1), new Point(2, 3, 4).trySubtract(p1));
+
+        // ============ Boundary Values Tests ==============
+        // TC11: A case of subtract with a point on the same point
+        assertNull("ERROR: TC11 trySubtract of the same point is not null", p1.trySubtract(new Point(1, 2, 3)));
+    }
+
     /**
      * Test method for {@link primitives.Point#distanceSquared(geometries.Point)}.
      */
@@ -2,6 +2,7 @@ package unittests.primitives;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 
 import java.util.LinkedList;
@@ -47,12 +48,22 @@ public class RayTest {
         ray = new Ray(new Point(1, 0, 0), new Vector(-2, 0, 0));
         assertEquals("Error: TC02, ray direction is incorrect", new Vector(-1, 0, 0), ray.getDir());
 
+        // TC03: A secondary ray (moved by the normal) with a direction that is not
+        // normalized
+        ray = new Ray(new Point(1, 0, 0), new Vector(0, 3, 4), new Vector(0, 0, 1));
+        assertEquals("Error: TC03, ray direction is incorrect", new Vector(0, 0.6, 0.8), ray.getDir());
+
         // =================== Boundary Values Tests ==================
         // TC11: Get direction of a ray with zero direction
         assertThrows("Error: TC11, Should throw an exception!", IllegalArgumentException.class, () -> {
             new Ray(new Point(1, 0, 0), new Vector(0, 0, 0));
         });
 
+        // TC12: A normalized direction is taken as is
+        Vector unit = new Vector(0, 0.6, 0.8);
+        assertSame("Error: TC12, a normalized direction is normalized again", unit,
+                new Ray(new Point(1, 0, 0), unit).getDir());
+
     }
 
     /**
@@ -0,0 +1,194 @@
+package unittests.primitives;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.Sampler;
+
+/**
+ * Testing Sampler
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class SamplerTest {
+
+    /**
+     * Test method for {@link primitives.Sampler#generate(int)}.
+     */
+    @Test
+    void testGenerate() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the samples are in the unit square
+        for (Sampler sampler : Sampler.values()) {
+            double[] samples = sampler.generate(37);
+            assertEquals(74, samples.length, "ERROR: TC01 " + sampler + " wrong amount of samples");
+            for (double coordinate : samples)
+                assertTrue(coordinate >= 0 && coordinate < 1, "ERROR: TC01 " + sampler + " sample out of the square");
+        }
+
+        // TC02: A set of 16 stratified or Sobol samples puts 4 samples in each
+        // quarter of each axis
+        for (Sampler sampler : new Sampler[] { Sampler.STRATIFIED, Sampler.SOBOL }) {
+            double[] samples = sampler.generate(16);
+            int[] columns = new int[4], rows = new int[4];
+            for (int i = 0; i < samples.length; i += 2) {
+                ++columns[(int) (samples[i] * 4)];
+                ++rows[(int) (samples[i + 1] * 4)];
+            }
+            for (int cell = 0; cell < 4; ++cell)
+                assertTrue(columns[cell] == 4 && rows[cell] == 4, "ERROR: TC02 " + sampler + " uneven samples");
+        }
+
+        // TC03: The same random source gives the same samples
+        for (Sampler sampler : Sampler.values())
+            assertArrayEquals(sampler.generate(9, new SplittableRandom(7)), sampler.generate(9, new SplittableRandom(7)),
+                    "ERROR: TC03 " + sampler + " samples are not reproducible");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No samples
+        for (Sampler sampler : Sampler.values())
+            assertEquals(0, sampler.generate(0).length, "ERROR: TC11 " + sampler + " samples of an empty set");
+    }
+
+    /**
+     * Test method for
+     * {@link primitives.Sampler#generateIndependent(int, java.util.random.RandomGenerator)}.
+     */
+    @Test
+    void testGenerateIndependent() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the samples are in the unit square
+        for (Sampler sampler : Sampler.values()) {
+            double[] samples = sampler.generateIndependent(37, new SplittableRandom(3));
+            assertEquals(74, samples.length, "ERROR: TC01 " + sampler + " wrong amount of samples");
+            for (double coordinate : samples)
+                assertTrue(coordinate >= 0 && coordinate < 1, "ERROR: TC01 " + sampler + " sample out of the square");
+        }
+
+        // TC02: A set of 16 stratified or Sobol samples (and the first 8 samples of a
+        // Sobol set of 64) still put the same amount of samples in each quarter of
+        // each axis
+        for (Sampler sampler : new Sampler[] { Sampler.STRATIFIED, Sampler.SOBOL })
+            for (int seed = 0; seed < 100; ++seed) {
+                double[] samples = sampler.generateIndependent(sampler == Sampler.SOBOL ? 64 : 16,
+                        new SplittableRandom(seed));
+                int amount = sampler == Sampler.SOBOL ? 8 : 16;
+                int[] columns = new int[4], rows = new int[4];
+                for (int i = 0; i < 2 * amount; i += 2) {
+                    ++columns[(int) (samples[i] * 4)];
+                    ++rows[(int) (samples[i + 1] * 4)];
+                }
+                for (int cell = 0; cell < 4; ++cell)
+                    assertTrue(columns[cell] == amount / 4 && rows[cell] == amount / 4,
+                            "ERROR: TC02 " + sampler + " uneven samples");
+            }
+
+        // TC03: The samples of the same index in a set and in an independent set are
+        // not correlated - in most of the pairs of sets, the pairs of their
+        // coordinates cover the four quarters of the square (in two sets of the
+        // same sequence they would cover only two)
+        for (Sampler sampler : Sampler.values()) {
+            int correlated = 0;
+            for (int seed = 0; seed < 100; ++seed) {
+                SplittableRandom random = new SplittableRandom(seed);
+                double[] first = sampler.generate(16, random);
+                double[] second = sampler.generateIndependent(16, random);
+                boolean[] quarters = new boolean[8];
+                for (int i = 0; i < 32; ++i)
+                    quarters[4 * (i % 2) + (first[i] < 0.5 ? 0 : 1) + (second[i] < 0.5 ? 0 : 2)] = true;
+                for (boolean quarter : quarters)
+                    if (!quarter) {
+                        ++correlated;
+                        break;
+                    }
+            }
+            assertTrue(correlated < 25, "ERROR: TC03 " + sampler + " the samples of both sets are correlated");
+        }
+    }
+
+    /**
+     * Test method for
+     * {@link primitives.Sampler#shuffle(double[], java.util.random.RandomGenerator)}.
+     */
+    @Test
+    void testShuffle() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The shuffled set has the same pairs of coordinates
+        double[] samples = Sampler.SOBOL.generate(16, new SplittableRandom(5));
+        double[] shuffled = Sampler.shuffle(samples.clone(), new SplittableRandom(6));
+        double[] x = new double[16], shuffledX = new double[16];
+        for (int i = 0; i < 16; ++i) {
+            x[i] = samples[2 * i];
+            shuffledX[i] = shuffled[2 * i];
+            for (int j = 0; j < 16; ++j)
+                if (samples[2 * j] == shuffled[2 * i])
+                    assertEquals(samples[2 * j + 1], shuffled[2 * i + 1], 0, "ERROR: TC01 a pair was split");
+        }
+        Arrays.sort(x);
+        Arrays.sort(shuffledX);
+        assertArrayEquals(x, shuffledX, "ERROR: TC01 the set was changed");
+
+        // TC02: A shuffled set is not paired by the order of the set
+        int correlated = 0;
+        for (int seed = 0; seed < 100; ++seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            double[] first = Sampler.SOBOL.generate(16, random);
+            double[] second = Sampler.shuffle(Sampler.SOBOL.generate(16, random), random);
+            boolean[] quarters = new boolean[4];
+            for (int i = 0; i < 32; i += 2)
+                quarters[(first[i] < 0.5 ? 0 : 1) + (second[i] < 0.5 ? 0 : 2)] = true;
+            for (boolean quarter : quarters)
+                if (!quarter) {
+                    ++correlated;
+                    break;
+                }
+        }
+        assertTrue(correlated < 25, "ERROR: TC02 the samples of both sets are correlated");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: An empty set
+        assertEquals(0, Sampler.shuffle(new double[0], new SplittableRandom(1)).length,
+                "ERROR: TC11 samples of an empty set");
+    }
+
+    /**
+     * Test method for {@link primitives.Sampler#progressive()}.
+     */
+    @Test
+    void testProgressive() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The first 8 samples of a progressive stratified or Sobol set of 64
+        // samples cover the four quarters of the square (by any random source)
+        for (Sampler sampler : new Sampler[] { Sampler.STRATIFIED, Sampler.SOBOL })
+            for (int seed = 0; seed < 100; ++seed) {
+                double[] samples = sampler.progressive().generate(64, new SplittableRandom(seed));
+                boolean[] quarters = new boolean[4];
+                for (int i = 0; i < 16; i += 2)
+                    quarters[(samples[i] < 0.5 ? 0 : 1) + (samples[i + 1] < 0.5 ? 0 : 2)] = true;
+                for (boolean quarter : quarters)
+                    assertTrue(quarter, "ERROR: TC01 " + sampler + " a prefix misses a quarter of the square");
+            }
+
+        // TC02: The first 8 samples of a progressive Halton set of 64 samples cover
+        // the two halves of each axis
+        for (int seed = 0; seed < 100; ++seed) {
+            double[] samples = Sampler.HALTON.progressive().generate(64, new SplittableRandom(seed));
+            boolean[] halves = new boolean[4];
+            for (int i = 0; i < 16; i += 2) {
+                halves[samples[i] < 0.5 ? 0 : 1] = true;
+                halves[samples[i + 1] < 0.5 ? 2 : 3] = true;
+            }
+            for (boolean half : halves)
+                assertTrue(half, "ERROR: TC02 HALTON a prefix misses a half of an axis");
+        }
+
+        // TC03: The sampler of a progressive set of a sampler whose prefixes are
+        // spread is the sampler itself
+        for (Sampler sampler : new Sampler[] { Sampler.RANDOM, Sampler.SOBOL, Sampler.HALTON })
+            assertEquals(sampler, sampler.progressive(), "ERROR: TC03 " + sampler + " was replaced");
+    }
+}
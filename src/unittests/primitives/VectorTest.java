@@ -1,11 +1,7 @@
 package unittests.primitives;
 
 import static primitives.Util.*;
-import static org.junit.Assert.*;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
@@ -24,14 +20,14 @@ public class VectorTest {
     void testAdd() {
         // ============ Equivalence Partitions Tests ==============
         // TC01: A simple case of add
-        assertEquals("Error: TC01, add result is incorrect", new Vector(2, 3, 4),
-                new Vector(1, 2, 3).add(new Vector(1, 1, 1)));
+        assertEquals(new Vector(2, 3, 4), new Vector(1, 2, 3).add(new Vector(1, 1, 1)),
+                "Error: TC01, add result is incorrect");
 
         // ============ Boundary Values Tests ==============
         // TC02: A case of add with a vector and minus vector
-        assertThrows("Error: TC02, add result is incorrect", IllegalArgumentException.class, () -> {
+        assertThrows(IllegalArgumentException.class, () -> {
             new Vector(1, 1, 1).add(new Vector(-1, -1, -1));
-        });
+        }, "Error: TC02, add result is incorrect");
     }
 
     /**
@@ -51,7 +47,7 @@ public class VectorTest {
                 "Error: TC01, crossProduct() wrong result length");
 
         // TC02: Test cross-product result orthogonality to its operands
-        assertTrue("Error: TC02, crossProduct() result is not orthogonal to 1st operand", isZero(vr.dotProduct(v1)));
+        assertTrue(isZero(vr.dotProduct(v1)), "Error: TC02, crossProduct() result is not orthogonal to 1st operand");
 
         // =============== Boundary Values Tests ==================
         // TC11: test zero vector from cross-product of co-lined vectors
@@ -74,10 +70,10 @@ public class VectorTest {
 
         // TC01: Test that dot-product is proper (orthogonal vectors taken for
         // simplicity)
-        assertTrue("Error: TC01, dotProduct() wrong result", isZero(vr));
+        assertTrue(isZero(vr), "Error: TC01, dotProduct() wrong result");
 
         // TC02: Test dot-product result orthogonality to its operands
-        assertTrue("Error: TC02, dotProduct() result is not orthogonal to 1st operand", isZero(v1.dotProduct(v2)));
+        assertTrue(isZero(v1.dotProduct(v2)), "Error: TC02, dotProduct() result is not orthogonal to 1st operand");
 
         // =============== Boundary Values Tests ==================
         // TC11: test dot-product with zero vector
@@ -115,8 +111,8 @@ public class VectorTest {
     void testNormalize() {
         // ============ Equivalence Partitions Tests ==============
         // TC01: A simple case of normalize
-        assertEquals("Error: TC01, normalize() wrong result", new Vector(0.26726124, 0.53452248, 0.80178373).length(),
-                new Vector(1, 2, 3).normalize().length(), 0.00001);
+        assertEquals(new Vector(0.26726124, 0.53452248, 0.80178373).length(), new Vector(1, 2, 3).normalize().length(),
+                0.00001, "Error: TC01, normalize() wrong result");
 
     }
 
@@ -131,8 +127,8 @@ public class VectorTest {
 
         // =============== Boundary Values Tests ==================
         // TC11: A simple case of zero scale
-        assertThrows("Error: TC11, scale() with zero scale does not throw an exception", IllegalArgumentException.class,
-                () -> new Vector(1, 2, 3).scale(0));
+        assertThrows(IllegalArgumentException.class, () -> new Vector(1, 2, 3).scale(0),
+                "Error: TC11, scale() with zero scale does not throw an exception");
 
     }
 
@@ -143,13 +139,75 @@ public class VectorTest {
     void testSubtract() {
         // ============ Equivalence Partitions Tests ==============
         // TC01: A simple case of subtract
-        assertEquals("ERROR: TC01, The vector is incorrect!", new Vector(1, 1, 1),
-                new Point(2, 3, 4).subtract(new Point(1, 2, 3)));
+        assertEquals(new Vector(1, 1, 1), new Point(2, 3, 4).subtract(new Point(1, 2, 3)),
+                "ERROR: TC01, The vector is incorrect!");
 
         // ============ Boundary Values Tests ==============
         // TC11: A case of subtract with a point on the same point
-        assertThrows("ERROR: TC11, The vector should be zero vector", IllegalArgumentException.class, () -> {
+        assertThrows(IllegalArgumentException.class, () -> {
             new Point(1, 1, 1).subtract(new Point(1, 1, 1));
-        });
+        }, "ERROR: TC11, The vector should be zero vector");
+    }
+
+    /**
+     * Test method for {@link primitives.Vector#tryOf(double, double, double)}.
+     */
+    @Test
+    void testTryOf() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A simple case of a vector
+        assertEquals(new Vector(1, 2, 3), Vector.tryOf(1, 2, 3), "Error: TC01, tryOf() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The zero vector
+        assertNull(Vector.tryOf(0, 0, 0), "Error: TC11, tryOf() of the zero vector is not null");
+    }
+
+    /**
+     * Test method for {@link primitives.Vector#tryAdd(primitives.Vector)}.
+     */
+    @Test
+    void testTryAdd() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A simple case of add
+        assertEquals(new Vector(2, 3, 4), new Vector(1, 2, 3).tryAdd(new Vector(1, 1, 1)),
+                "Error: TC01, tryAdd() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A vector and its opposite vector
+        assertNull(new Vector(1, 1, 1).tryAdd(new Vector(-1, -1, -1)),
+                "Error: TC11, tryAdd() of the zero vector is not null");
+    }
+
+    /**
+     * Test method for {@link primitives.Vector#tryScale(double)}.
+     */
+    @Test
+    void testTryScale() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A simple case of scale
+        assertEquals(new Vector(2, 4, 6), new Vector(1, 2, 3).tryScale(2), "Error: TC01, tryScale() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A zero scale
+        assertNull(new Vector(1, 2, 3).tryScale(0), "Error: TC11, tryScale() with zero scale is not null");
+    }
+
+    /**
+     * Test method for {@link primitives.Vector#tryCrossProduct(primitives.Vector)}.
+     */
+    @Test
+    void testTryCrossProduct() {
+        Vector v1 = new Vector(1, 2, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same as the cross-product of vectors that are not parallel
+        Vector v2 = new Vector(0, 3, -2);
+        assertEquals(v1.crossProduct(v2), v1.tryCrossProduct(v2), "Error: TC01, tryCrossProduct() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Parallel vectors
+        assertNull(v1.tryCrossProduct(new Vector(-2, -4, -6)),
+                "Error: TC11, tryCrossProduct() for parallel vectors is not null");
     }
 }
@@ -1,11 +1,25 @@
 package unittests.renderer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 
+import geometries.BoundingBox;
+import geometries.Intersectable;
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
 import primitives.*;
-import renderer.Camera;
+import renderer.*;
+import scene.Scene;
 
 /**
  * Testing Camera Class
@@ -57,4 +71,209 @@ public class CameraTest {
 
         }
 
+        /**
+         * a camera of a scene of 50 lit spheres (and other geometries, if required)
+         */
+        private static Camera spheresCamera(ImageWriter imageWriter, Intersectable... geometries) {
+                Scene scene = new Scene("spheres");
+                scene.geometries.add(geometries);
+                for (int i = 0; i < 50; ++i)
+                        scene.geometries.add(new Sphere(new Point(10 * (i % 10) - 45, 10 * (i / 10) - 20, -100), 4)
+                                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)));
+                scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(0, 100, 0)));
+                return new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0)).setVPDistance(100)
+                                .setVPSize(100, 100).setImageWriter(imageWriter).setRayTracer(new RayTracerBasic(scene));
+        }
+
+        /**
+         * Test method for {@link renderer.Camera#setSeed(long)}.
+         */
+        @Test
+        void testDeterministicRender() {
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: A seeded render by threads is the same as by the calling thread
+                // =============== Boundary Values Tests ==================
+                // TC11: The same with pixels of size 1
+                for (int pixelSize : new int[] { 3, 1 }) {
+                        ImageWriter sequential = new ImageWriter("sequential", 60, 60);
+                        ImageWriter threads = new ImageWriter("threads", 60, 60);
+                        spheresCamera(sequential).setActiveASS(false).setPixelSize(pixelSize).setSeed(7).renderImage();
+                        spheresCamera(threads).setActiveASS(false).setPixelSize(pixelSize).setSeed(7).setMultithreading(2)
+                                        .renderImage();
+                        for (int row = 0; row < 60; ++row)
+                                for (int col = 0; col < 60; ++col)
+                                        assertEquals(sequential.getPixel(col, row), threads.getPixel(col, row),
+                                                        (pixelSize == 1 ? "TC11" : "TC01") + ": ERROR: Different pixel " + col
+                                                                        + "," + row);
+                }
+        }
+
+        /**
+         * Test method for {@link renderer.Camera#setAdaptiveDepthOfField(boolean)}.
+         */
+        @Test
+        void testAdaptiveDepthOfField() {
+                ImageWriter pinhole = new ImageWriter("pinhole", 60, 60);
+                spheresCamera(pinhole).setPixelSize(3).setSeed(7).renderImage();
+
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: The adaptive super sampling of a scene in focus takes the pixels of
+                // the pinhole camera
+                ImageWriter inFocus = new ImageWriter("inFocus", 60, 60);
+                spheresCamera(inFocus).setPixelSize(3).setSeed(7).setDepthOfFiled(96, 0.1, 25).setDepthOfFiled(true)
+                                .setAdaptiveDepthOfField(true).renderImage();
+                // TC02: The adaptive super sampling of a scene out of focus blurs it
+                ImageWriter outOfFocus = new ImageWriter("outOfFocus", 60, 60);
+                spheresCamera(outOfFocus).setPixelSize(3).setSeed(7).setDepthOfFiled(50, 10, 25)
+                                .setDepthOfFiled(true).setAdaptiveDepthOfField(true).renderImage();
+                int blurred = 0;
+                for (int row = 0; row < 60; ++row)
+                        for (int col = 0; col < 60; ++col) {
+                                assertEquals(pinhole.getPixel(col, row), inFocus.getPixel(col, row),
+                                                "TC01: ERROR: Different pixel " + col + "," + row);
+                                if (!pinhole.getPixel(col, row).equals(outOfFocus.getPixel(col, row)))
+                                        ++blurred;
+                        }
+                assertTrue(blurred > 600, "TC02: ERROR: The scene out of focus is not blurred");
+        }
+
+        /**
+         * The mean difference of the pixels of two images (of their components in the
+         * 0-255 scale)
+         */
+        private static double meanDifference(ImageWriter a, ImageWriter b) {
+                double sum = 0;
+                for (int row = 0; row < a.getNy(); ++row)
+                        for (int col = 0; col < a.getNx(); ++col) {
+                                Color colorA = a.getPixel(col, row), colorB = b.getPixel(col, row);
+                                sum += Math.abs(Math.min(colorA.getRed(), 255) - Math.min(colorB.getRed(), 255))
+                                                + Math.abs(Math.min(colorA.getGreen(), 255) - Math.min(colorB.getGreen(), 255))
+                                                + Math.abs(Math.min(colorA.getBlue(), 255) - Math.min(colorB.getBlue(), 255));
+                        }
+                return sum / 3 / (a.getNx() * a.getNy());
+        }
+
+        /**
+         * Test method for {@link renderer.Camera#setActiveASS(boolean)} with depth of
+         * field.
+         */
+        @Test
+        void testAssDepthOfField() {
+                ImageWriter pinhole = new ImageWriter("pinhole", 60, 60);
+                spheresCamera(pinhole).setActiveASS(false).setPixelSize(3).setSeed(7).renderImage();
+                ImageWriter beam = new ImageWriter("beam", 60, 60);
+                spheresCamera(beam).setActiveASS(false).setPixelSize(3).setSeed(7).setDepthOfFiled(50, 10, 25)
+                                .setDepthOfFiled(true).renderImage();
+                // the bound of the difference of the samplings of the same blur (about 6.5 by
+                // their noise), below the blur itself
+                double bound = 8;
+                assertTrue(meanDifference(pinhole, beam) > 12, "ERROR: The scene out of focus is not blurred");
+
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: The adaptive super sampling of a scene out of focus is the blur of the
+                // beam of the pixels
+                ImageWriter ass = new ImageWriter("ass", 60, 60);
+                spheresCamera(ass).setPixelSize(3).setSeed(7).setDepthOfFiled(50, 10, 25).setDepthOfFiled(true)
+                                .renderImage();
+                assertTrue(meanDifference(ass, beam) < bound, "TC01: ERROR: The ASS blur differs from the beam");
+                // TC02: The same with the DOF by the circle of confusion
+                ImageWriter assCoc = new ImageWriter("assCoc", 60, 60);
+                spheresCamera(assCoc).setPixelSize(3).setSeed(7).setDepthOfFiled(50, 10, 25).setDepthOfFiled(true)
+                                .setAdaptiveDepthOfField(true).renderImage();
+                assertTrue(meanDifference(assCoc, beam) < bound,
+                                "TC02: ERROR: The ASS blur by the CoC differs from the beam");
+        }
+
+        /**
+         * Check whether two colors are exactly the same (unlike
+         * {@link Color#equals(Object)}, which allows a difference of 1)
+         */
+        private static boolean sameColor(Color a, Color b) {
+                return a.getRed() == b.getRed() && a.getGreen() == b.getGreen() && a.getBlue() == b.getBlue();
+        }
+
+        /**
+         * Test method for {@link renderer.Camera#setEdgeAA(boolean)}.
+         */
+        @Test
+        void testEdgeAA() {
+                // the spheres in front of a flat wall
+                Intersectable wall = new Plane(new Vector(0, 0, 1), new Point(0, 0, -150))
+                                .setMaterial(new Material().setKd(0.5));
+                ImageWriter single = new ImageWriter("single", 60, 60);
+                spheresCamera(single, wall).setActivateAA(false).renderImage();
+                ImageWriter beam = new ImageWriter("beam", 60, 60);
+                spheresCamera(beam, wall).setActiveASS(false).setPixelSize(3).setSeed(7).renderImage();
+                ImageWriter edges = new ImageWriter("edges", 60, 60);
+                spheresCamera(edges, wall).setEdgeAA(true).setPixelSize(3).setSeed(7).renderImage();
+
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: A pixel on an edge is supersampled by the beam of the pixel
+                // TC02: A flat pixel keeps the single ray of its center
+                int supersampled = 0, flat = 0;
+                for (int row = 0; row < 60; ++row)
+                        for (int col = 0; col < 60; ++col) {
+                                Color color = edges.getPixel(col, row);
+                                boolean isSingle = sameColor(color, single.getPixel(col, row));
+                                boolean isBeam = sameColor(color, beam.getPixel(col, row));
+                                assertTrue(isSingle || isBeam, "ERROR: Neither a single ray nor a beam in pixel " + col + ","
+                                                + row);
+                                if (!isSingle)
+                                        ++supersampled;
+                                else if (!isBeam)
+                                        ++flat;
+                        }
+                assertTrue(supersampled > 500, "TC01: ERROR: The edges are not supersampled");
+                assertTrue(flat > 500, "TC02: ERROR: The flat pixels are supersampled");
+        }
+
+        /**
+         * Test method for {@link renderer.RenderSession#cancel()}.
+         */
+        @Test
+        void testCancelRender() throws InterruptedException {
+                // a geometry that holds the threads from their first ray after a tile is done,
+                // until the rendering is cancelled
+                AtomicReference<RenderSession> rendering = new AtomicReference<>();
+                CountDownLatch held = new CountDownLatch(1);
+                CountDownLatch cancelled = new CountDownLatch(1);
+                Intersectable gate = new Intersectable() {
+                        @Override
+                        protected BoundingBox calcBoundingBox() {
+                                return null;
+                        }
+
+                        @Override
+                        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+                                RenderSession session = rendering.get();
+                                if (cancelled.getCount() > 0 && session != null && session.getPixelsDone() > 0) {
+                                        held.countDown();
+                                        try {
+                                                cancelled.await();
+                                        } catch (InterruptedException e) {
+                                                Thread.currentThread().interrupt();
+                                        }
+                                }
+                                return null;
+                        }
+                };
+                ForkJoinPool pool = new ForkJoinPool(2);
+                RenderSession session = spheresCamera(new ImageWriter("cancel", 400, 400), gate).setActiveASS(false)
+                                .setPixelSize(8).setTileSize(16).setThreadPool(pool).startRender();
+                rendering.set(session);
+
+                // ============ Equivalence Partitions Tests ==============
+                // TC01: A cancelled rendering stops - no tile is started after the cancellation,
+                // only the tiles of the held pixels may be completed
+                held.await();
+                session.cancel();
+                long done = session.getPixelsDone();
+                cancelled.countDown();
+                assertThrows(IllegalStateException.class, session::await, "TC01: ERROR: The rendering was cancelled");
+                pool.shutdown();
+                assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES), "TC01: ERROR: The threads were not released");
+                assertTrue(session.getPixelsDone() <= done + 2 * 16 * 16,
+                                "TC01: ERROR: The tiles go on after the cancellation");
+                assertTrue(session.getPixelsDone() < session.getPixelsCount(), "TC01: ERROR: The whole image was rendered");
+        }
 }
@@ -1,6 +1,13 @@
 package unittests.renderer;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.Test;
 import primitives.Color;
@@ -34,4 +41,68 @@ public class ImageWriterTest {
         }
         imageWriter.writeToImage();
     }
+
+    /**
+     * Test method for {@link ImageWriter#setFormat(ImageFormat)}
+     */
+    @Test
+    void testWriteToImageFormats() throws IOException {
+        ImageWriter imageWriter = new ImageWriter("formats", 3, 2);
+        imageWriter.writePixel(0, 0, new Color(300, 100.5, 0));
+        imageWriter.writePixel(2, 1, new Color(1, 2, 3));
+
+        // TC01: PPM - 8 bits per component, clamped, rows from the top
+        imageWriter.setFormat(ImageFormat.PPM).writeToImage();
+        byte[] ppm = Files.readAllBytes(Path.of("images", "formats.ppm"));
+        int header = "P6\n3 2\n255\n".length();
+        assertEquals(header + 3 * 6, ppm.length, "PPM: wrong file size");
+        assertEquals(255, ppm[header] & 0xFF, "PPM: wrong clamped red");
+        assertEquals(100, ppm[header + 1] & 0xFF, "PPM: wrong green");
+        assertEquals(3, ppm[header + 3 * 5 + 2] & 0xFF, "PPM: wrong last pixel");
+
+        // TC02: PFM - floats, not clamped, rows from the bottom
+        imageWriter.setFormat(ImageFormat.PFM).writeToImage();
+        byte[] pfm = Files.readAllBytes(Path.of("images", "formats.pfm"));
+        header = "PF\n3 2\n-1.0\n".length();
+        assertEquals(header + 12 * 6, pfm.length, "PFM: wrong file size");
+        ByteBuffer floats = ByteBuffer.wrap(pfm, header, 12 * 6).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(300, floats.getFloat(header + 12 * 3), "PFM: wrong unclamped red");
+        assertEquals(100.5, floats.getFloat(header + 12 * 3 + 4), "PFM: wrong green");
+        assertEquals(3, floats.getFloat(header + 12 * 2 + 8), "PFM: wrong last pixel");
+    }
+
+    /**
+     * Test method for {@link ImageWriter#addPixel(int, int, Color)}
+     */
+    @Test
+    void testAddPixel() throws IOException {
+        ImageWriter imageWriter = new ImageWriter("accumulated", 2, 1);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The added colors are summed on the written color, not clamped
+        imageWriter.writePixel(0, 0, new Color(200, 0.25, 1));
+        imageWriter.addPixel(0, 0, new Color(100, 0.5, 2));
+        imageWriter.addPixel(0, 0, new Color(0.5, 0.125, 3));
+        Color sum = imageWriter.getPixel(0, 0);
+        assertEquals(300.5, sum.getRed(), "TC01: wrong red");
+        assertEquals(0.875, sum.getGreen(), "TC01: wrong green");
+        assertEquals(6, sum.getBlue(), "TC01: wrong blue");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A color added to a pixel that was not written is added to black
+        imageWriter.addPixel(1, 0, new Color(1.5, 2, 400));
+        Color added = imageWriter.getPixel(1, 0);
+        assertEquals(1.5, added.getRed(), "TC11: wrong red");
+        assertEquals(2, added.getGreen(), "TC11: wrong green");
+        assertEquals(400, added.getBlue(), "TC11: wrong blue");
+
+        // TC12: The PFM file keeps the accumulated floats
+        imageWriter.setFormat(ImageFormat.PFM).writeToImage();
+        byte[] pfm = Files.readAllBytes(Path.of("images", "accumulated.pfm"));
+        int header = "PF\n2 1\n-1.0\n".length();
+        assertEquals(header + 12 * 2, pfm.length, "TC12: wrong file size");
+        ByteBuffer floats = ByteBuffer.wrap(pfm).order(ByteOrder.LITTLE_ENDIAN);
+        float[] expected = { 300.5f, 0.875f, 6, 1.5f, 2, 400 };
+        for (int k = 0; k < expected.length; ++k)
+            assertEquals(expected[k], floats.getFloat(header + 4 * k), "TC12: wrong float " + k);
+    }
 }
@@ -0,0 +1,59 @@
+package unittests.renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import renderer.TraversalOrder;
+
+/**
+ * Testing TraversalOrder
+ *
+ * @author Noam Karmon & Omer Gertler
+ */
+public class TraversalOrderTest {
+
+    /**
+     * check that an order visits each cell of a grid exactly once
+     */
+    private static void assertPermutation(TraversalOrder order, int width, int height) {
+        int[] cells = order.order(width, height);
+        assertEquals(width * height, cells.length, "ERROR: " + order + " wrong amount of cells");
+        boolean[] visited = new boolean[cells.length];
+        for (int cell : cells) {
+            assertFalse(visited[cell], "ERROR: " + order + " visits a cell twice");
+            visited[cell] = true;
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.TraversalOrder#order(int, int)}.
+     */
+    @Test
+    void testOrder() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A square grid of a power of 2
+        for (TraversalOrder order : TraversalOrder.values())
+            assertPermutation(order, 8, 8);
+
+        // TC02: A rectangular grid
+        for (TraversalOrder order : TraversalOrder.values()) {
+            assertPermutation(order, 13, 5);
+            assertPermutation(order, 3, 10);
+        }
+
+        // TC03: Each cell of the Hilbert curve is a neighbour of the previous one
+        int[] cells = TraversalOrder.HILBERT.order(16, 16);
+        for (int i = 1; i < cells.length; ++i)
+            assertEquals(1, Math.abs(cells[i] % 16 - cells[i - 1] % 16) + Math.abs(cells[i] / 16 - cells[i - 1] / 16),
+                    "ERROR: TC03 the Hilbert curve jumps");
+
+        // TC04: The spiral starts at the center
+        assertEquals(2 * 5 + 2, TraversalOrder.SPIRAL.order(5, 5)[0], "ERROR: TC04 the spiral starts off center");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single cell
+        for (TraversalOrder order : TraversalOrder.values())
+            assertArrayEquals(new int[] { 0 }, order.order(1, 1), "ERROR: TC11 wrong order of a single cell");
+    }
+}
@@ -83,7 +83,8 @@ public class Final {
             .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)), //
     new Sphere(new Point(60, 50, -50), 25d).setEmission(new Color(BLUE)) //
             .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100).setKt(0.2)),
-    //flower:
+    //flower (a bundle - culled as a whole by its bounding box):
+    new Geometries( //
     new Sphere(new Point(-50, -50, -50), 10d).setEmission(new Color(YELLOW)) //
             .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100).setKt(0.5)),
     new Sphere(new Point(-50, -70, -50), 10d).setEmission(new Color(RED)) //
@@ -100,7 +101,7 @@ public class Final {
             .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100).setKt(0.5)),
     new Triangle(new Point(-50, -50, -75), new Point(-88, -65, -75), new Point(-100, -60, -75)) //
             .setMaterial(new Material().setKd(0.5).setKd(0.5).setShininess(40)) //
-            .setEmission(new Color(GREEN)));
+            .setEmission(new Color(GREEN))));
 
     scene.geometries.add(new Plane(new Vector(0, 0, -1), new Point(0, 0, -100)).setEmission(new Color(DARK_GRAY)) //
                             .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(20).setKt(0.5)), //
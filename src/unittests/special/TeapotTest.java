@@ -571,6 +571,28 @@ public class TeapotTest {
 	 */
 	@Test
 	public void teapot() {
+		addTeapot();
+		camera.setRayTracer(new RayTracerBasic(scene)).renderImage().printGrid(50, new Color(YELLOW));
+		camera.writeToImage();
+	}
+
+	/**
+	 * Produce a scene with a 3D model and render it into a png image with the
+	 * edge-driven anti-aliasing
+	 */
+	@Test
+	public void teapotEdgeAA() {
+		addTeapot();
+		camera.setImageWriter(new ImageWriter("teapotEdgeAA", 800, 800)) //
+				.setRayTracer(new RayTracerBasic(scene)).setEdgeAA(true) //
+				.renderImage().printGrid(50, new Color(YELLOW));
+		camera.writeToImage();
+	}
+
+	/**
+	 * Add the 3D model and its light to the scene
+	 */
+	private void addTeapot() {
 		scene.geometries.add( //
 				new Triangle(pnts[7], pnts[6], pnts[1]).setEmission(color).setMaterial(mat), //
 				new Triangle(pnts[1], pnts[2], pnts[7]).setEmission(color).setMaterial(mat), //
@@ -1567,7 +1589,6 @@ public class TeapotTest {
 		);
 		scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKq(0.000001));
 
-		camera.setRayTracer(new RayTracerBasic(scene)).renderImage().printGrid(50, new Color(YELLOW));
-		camera.writeToImage();
+		scene.geometries.setBVH(true);
 	}
 }
\ No newline at end of file